@@ -0,0 +1,46 @@
+package com.example.account.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * 기존 UUID 방식과 시각 순서 방식의 거래 ID 생성 비용을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionIdGeneratorBenchmark {
+
+    private final TransactionIdGenerator uuid =
+        new UuidTransactionIdGenerator();
+    private final TransactionIdGenerator timeOrdered =
+        new TimeOrderedTransactionIdGenerator(0);
+
+    @Benchmark
+    public String uuid() {
+        return uuid.generate();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuid_8threads() {
+        return uuid.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrdered_8threads() {
+        return timeOrdered.generate();
+    }
+}
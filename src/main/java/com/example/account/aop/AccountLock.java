@@ -13,5 +13,19 @@ import java.lang.annotation.Target;
 @Inherited
 public @interface AccountLock {
 
+    /**
+     * application.yml 의 account.lock.policies.{policy} 에서 아래 값을 덮어쓸 때 쓰는 이름
+     */
+    String policy() default "";
+
     long tryLockTime() default 5000L;
+
+    long leaseTime() default 15000L;
+
+    boolean fair() default false;
+
+    /**
+     * true 이면 leaseTime 대신 Redisson watchdog 이 락을 갱신한다.
+     */
+    boolean watchdog() default false;
 }
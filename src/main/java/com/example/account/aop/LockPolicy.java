@@ -0,0 +1,30 @@
+package com.example.account.aop;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+@Builder
+public class LockPolicy {
+
+    public static final LockPolicy DEFAULT = LockPolicy.builder()
+        .waitMillis(1000L)
+        .leaseMillis(15000L)
+        .build();
+
+    private final long waitMillis;
+    private final long leaseMillis;
+    private final boolean fair;
+    private final boolean watchdog;
+
+    /**
+     * Redisson 에 넘길 lease. watchdog 을 쓰려면 -1 을 넘겨야 한다.
+     */
+    public long getRedisLeaseMillis() {
+        return watchdog ? -1L : leaseMillis;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.account.columnar;
+
+import com.example.account.columnar.ColumnarFormat.Column;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+/**
+ * 행 그룹 하나에서 요청한 컬럼만 풀어 둔 배열. 요청하지 않은 컬럼은 null 이다.
+ */
+public class ColumnBatch {
+
+    private final int rowCount;
+
+    long[] ids;
+    long[] accountIds;
+    long[] transactionAts;
+    byte[] transactionTypeCodes;
+    TransactionType[] transactionTypeDictionary;
+    byte[] transactionResultTypeCodes;
+    TransactionResultType[] transactionResultTypeDictionary;
+    long[] amounts;
+    long[] balanceSnapshots;
+
+    ColumnBatch(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getId(int row) {
+        return require(ids, Column.ID)[row];
+    }
+
+    public long getAccountId(int row) {
+        return require(accountIds, Column.ACCOUNT_ID)[row];
+    }
+
+    /**
+     * UTC 기준 epoch 마이크로초
+     */
+    public long getTransactionAtMicros(int row) {
+        return require(transactionAts, Column.TRANSACTION_AT)[row];
+    }
+
+    public TransactionType getTransactionType(int row) {
+        return transactionTypeDictionary[
+            require(transactionTypeCodes, Column.TRANSACTION_TYPE)[row] & 0xFF];
+    }
+
+    public TransactionResultType getTransactionResultType(int row) {
+        return transactionResultTypeDictionary[
+            require(transactionResultTypeCodes,
+                Column.TRANSACTION_RESULT_TYPE)[row] & 0xFF];
+    }
+
+    public long getAmount(int row) {
+        return require(amounts, Column.AMOUNT)[row];
+    }
+
+    public long getBalanceSnapshot(int row) {
+        return require(balanceSnapshots, Column.BALANCE_SNAPSHOT)[row];
+    }
+
+    private static <T> T require(T values, Column column) {
+        if (values == null) {
+            throw new IllegalStateException(column + " was not scanned");
+        }
+        return values;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.account.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 거래 내역 컬럼 파일 형식.
+ *
+ * <pre>
+ * 파일     : MAGIC(4) VERSION(1) 행그룹* 끝표시(int 0)
+ * 행그룹   : rowCount(int) 컬럼별 chunk 길이(int x 컬럼 수) chunk*
+ * chunk    : 인코딩(1) 값들
+ *   DELTA_VARINT : 첫 값, 이후 앞 값과의 차이를 zigzag varint 로
+ *   VARINT       : 값마다 zigzag varint
+ *   DICTIONARY   : 사전 크기(varint) 항목(varint 길이 + UTF-8)* 행마다 사전 번호(1 byte)
+ * </pre>
+ * 정수는 big-endian 이며, 컬럼 순서는 {@link Column} 선언 순서이다.
+ */
+public final class ColumnarFormat {
+
+    public static final byte[] MAGIC = {'A', 'C', 'O', 'L'};
+    public static final byte VERSION = 1;
+    public static final int FILE_HEADER_SIZE = MAGIC.length + 1;
+    public static final int ROW_GROUP_HEADER_SIZE =
+        Integer.BYTES * (1 + Column.values().length);
+
+    public static final byte ENCODING_DELTA_VARINT = 1;
+    public static final byte ENCODING_VARINT = 2;
+    public static final byte ENCODING_DICTIONARY = 3;
+
+    public enum Column {
+        ID(ENCODING_DELTA_VARINT),
+        ACCOUNT_ID(ENCODING_VARINT),
+        /**
+         * UTC 기준 epoch 마이크로초
+         */
+        TRANSACTION_AT(ENCODING_DELTA_VARINT),
+        TRANSACTION_TYPE(ENCODING_DICTIONARY),
+        TRANSACTION_RESULT_TYPE(ENCODING_DICTIONARY),
+        AMOUNT(ENCODING_VARINT),
+        BALANCE_SNAPSHOT(ENCODING_VARINT);
+
+        private final byte encoding;
+
+        Column(byte encoding) {
+            this.encoding = encoding;
+        }
+
+        public byte getEncoding() {
+            return encoding;
+        }
+    }
+
+    private ColumnarFormat() {
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) readVarLong(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.account.columnar;
+
+import static com.example.account.columnar.ColumnarFormat.readString;
+import static com.example.account.columnar.ColumnarFormat.readVarLong;
+
+import com.example.account.columnar.ColumnarFormat.Column;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 컬럼 파일을 행 그룹 단위로 메모리 매핑해 필요한 컬럼만 풀어 읽는다.
+ */
+public class ColumnarTransactionReader implements Closeable {
+
+    private final FileChannel channel;
+
+    private ColumnarTransactionReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static ColumnarTransactionReader open(Path path)
+        throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(
+                ColumnarFormat.FILE_HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+            if (header.remaining() < ColumnarFormat.FILE_HEADER_SIZE) {
+                throw new IOException("Not a columnar transaction file");
+            }
+            header.get(magic);
+            if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+                throw new IOException("Not a columnar transaction file");
+            }
+            if (header.get() != ColumnarFormat.VERSION) {
+                throw new IOException("Unsupported columnar file version");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new ColumnarTransactionReader(channel);
+    }
+
+    public void scan(Set<Column> columns, Consumer<ColumnBatch> consumer)
+        throws IOException {
+        int columnCount = Column.values().length;
+        long position = ColumnarFormat.FILE_HEADER_SIZE;
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(
+            ColumnarFormat.ROW_GROUP_HEADER_SIZE);
+
+        while (position + Integer.BYTES <= fileSize) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int rowCount = header.getInt();
+            if (rowCount == 0) {
+                return;
+            }
+            int[] lengths = new int[columnCount];
+            long groupLength = 0;
+            for (int i = 0; i < columnCount; i++) {
+                lengths[i] = header.getInt();
+                groupLength += lengths[i];
+            }
+
+            long dataPosition = position + ColumnarFormat.ROW_GROUP_HEADER_SIZE;
+            MappedByteBuffer data = channel.map(MapMode.READ_ONLY,
+                dataPosition, groupLength);
+            ColumnBatch batch = new ColumnBatch(rowCount);
+            int offset = 0;
+            for (Column column : Column.values()) {
+                int length = lengths[column.ordinal()];
+                if (columns.contains(column)) {
+                    ByteBuffer chunk = data.duplicate();
+                    chunk.position(offset).limit(offset + length);
+                    decode(column, chunk.slice(), rowCount, batch);
+                }
+                offset += length;
+            }
+            consumer.accept(batch);
+
+            position = dataPosition + groupLength;
+        }
+    }
+
+    /**
+     * 기간 [from, to) 안에서 해당 종류/결과 거래 금액의 합. 네 컬럼만 읽는다.
+     */
+    public long sumAmount(TransactionType transactionType,
+        TransactionResultType transactionResultType,
+        LocalDateTime from, LocalDateTime to) throws IOException {
+        long fromMicros = ColumnarTransactionWriter.toEpochMicros(from);
+        long toMicros = ColumnarTransactionWriter.toEpochMicros(to);
+        long[] sum = new long[1];
+        scan(EnumSet.of(Column.TRANSACTION_AT, Column.TRANSACTION_TYPE,
+            Column.TRANSACTION_RESULT_TYPE, Column.AMOUNT), batch -> {
+            for (int row = 0; row < batch.getRowCount(); row++) {
+                long at = batch.getTransactionAtMicros(row);
+                if (at >= fromMicros && at < toMicros
+                    && batch.getTransactionType(row) == transactionType
+                    && batch.getTransactionResultType(row)
+                    == transactionResultType) {
+                    sum[0] += batch.getAmount(row);
+                }
+            }
+        });
+        return sum[0];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void decode(Column column, ByteBuffer chunk, int rowCount,
+        ColumnBatch batch) throws IOException {
+        byte encoding = chunk.get();
+        if (encoding != column.getEncoding()) {
+            throw new IOException("Unexpected encoding " + encoding
+                + " for column " + column);
+        }
+
+        switch (column) {
+            case ID:
+                batch.ids = readDelta(chunk, rowCount);
+                break;
+            case ACCOUNT_ID:
+                batch.accountIds = readVarLongs(chunk, rowCount);
+                break;
+            case TRANSACTION_AT:
+                batch.transactionAts = readDelta(chunk, rowCount);
+                break;
+            case TRANSACTION_TYPE:
+                batch.transactionTypeDictionary = readDictionary(chunk,
+                    TransactionType::valueOf, TransactionType[]::new);
+                batch.transactionTypeCodes = readCodes(chunk, rowCount);
+                break;
+            case TRANSACTION_RESULT_TYPE:
+                batch.transactionResultTypeDictionary = readDictionary(chunk,
+                    TransactionResultType::valueOf,
+                    TransactionResultType[]::new);
+                batch.transactionResultTypeCodes = readCodes(chunk, rowCount);
+                break;
+            case AMOUNT:
+                batch.amounts = readVarLongs(chunk, rowCount);
+                break;
+            case BALANCE_SNAPSHOT:
+                batch.balanceSnapshots = readVarLongs(chunk, rowCount);
+                break;
+            default:
+                throw new IOException("Unknown column " + column);
+        }
+    }
+
+    private static long[] readDelta(ByteBuffer chunk, int rowCount) {
+        long[] values = new long[rowCount];
+        long previous = 0;
+        for (int i = 0; i < rowCount; i++) {
+            previous += readVarLong(chunk);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static long[] readVarLongs(ByteBuffer chunk, int rowCount) {
+        long[] values = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = readVarLong(chunk);
+        }
+        return values;
+    }
+
+    private static <T> T[] readDictionary(ByteBuffer chunk,
+        Function<String, T> parser, IntFunction<T[]> array) {
+        T[] dictionary = array.apply((int) readVarLong(chunk));
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = parser.apply(readString(chunk));
+        }
+        return dictionary;
+    }
+
+    private static byte[] readCodes(ByteBuffer chunk, int rowCount) {
+        byte[] codes = new byte[rowCount];
+        chunk.get(codes);
+        return codes;
+    }
+}
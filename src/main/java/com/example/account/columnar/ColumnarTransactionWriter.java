@@ -0,0 +1,160 @@
+package com.example.account.columnar;
+
+import static com.example.account.columnar.ColumnarFormat.writeString;
+import static com.example.account.columnar.ColumnarFormat.writeVarLong;
+
+import com.example.account.columnar.ColumnarFormat.Column;
+import com.example.account.dto.TransactionExportRow;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 거래 행을 rowGroupSize 개씩 모아 컬럼별로 인코딩해 쓴다. 메모리에는 행 그룹 하나만 둔다.
+ */
+public class ColumnarTransactionWriter implements Closeable {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 65_536;
+
+    private final DataOutputStream out;
+    private final int rowGroupSize;
+
+    private final long[] ids;
+    private final long[] accountIds;
+    private final long[] transactionAts;
+    private final String[] transactionTypes;
+    private final String[] transactionResultTypes;
+    private final long[] amounts;
+    private final long[] balanceSnapshots;
+    private int size;
+
+    private final ByteArrayOutputStream[] chunks =
+        new ByteArrayOutputStream[Column.values().length];
+
+    public ColumnarTransactionWriter(OutputStream out) throws IOException {
+        this(out, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ColumnarTransactionWriter(OutputStream out, int rowGroupSize)
+        throws IOException {
+        this.out = new DataOutputStream(out);
+        this.rowGroupSize = rowGroupSize;
+        ids = new long[rowGroupSize];
+        accountIds = new long[rowGroupSize];
+        transactionAts = new long[rowGroupSize];
+        transactionTypes = new String[rowGroupSize];
+        transactionResultTypes = new String[rowGroupSize];
+        amounts = new long[rowGroupSize];
+        balanceSnapshots = new long[rowGroupSize];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new ByteArrayOutputStream();
+        }
+
+        this.out.write(ColumnarFormat.MAGIC);
+        this.out.writeByte(ColumnarFormat.VERSION);
+    }
+
+    public void write(TransactionExportRow row) throws IOException {
+        ids[size] = row.getId();
+        accountIds[size] = row.getAccountId();
+        transactionAts[size] = toEpochMicros(row.getTransactionAt());
+        transactionTypes[size] = row.getTransactionType().name();
+        transactionResultTypes[size] = row.getTransactionResultType().name();
+        amounts[size] = row.getAmount();
+        balanceSnapshots[size] = row.getBalanceSnapshot();
+        size++;
+        if (size == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (size > 0) {
+            flushRowGroup();
+        }
+        out.writeInt(0);
+        out.flush();
+    }
+
+    static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L
+            + dateTime.getNano() / 1_000;
+    }
+
+    private void flushRowGroup() throws IOException {
+        for (ByteArrayOutputStream chunk : chunks) {
+            chunk.reset();
+        }
+        writeDelta(chunks[Column.ID.ordinal()], ids);
+        writeVarLongs(chunks[Column.ACCOUNT_ID.ordinal()], accountIds);
+        writeDelta(chunks[Column.TRANSACTION_AT.ordinal()], transactionAts);
+        writeDictionary(chunks[Column.TRANSACTION_TYPE.ordinal()],
+            transactionTypes);
+        writeDictionary(chunks[Column.TRANSACTION_RESULT_TYPE.ordinal()],
+            transactionResultTypes);
+        writeVarLongs(chunks[Column.AMOUNT.ordinal()], amounts);
+        writeVarLongs(chunks[Column.BALANCE_SNAPSHOT.ordinal()],
+            balanceSnapshots);
+
+        out.writeInt(size);
+        for (ByteArrayOutputStream chunk : chunks) {
+            out.writeInt(chunk.size());
+        }
+        for (ByteArrayOutputStream chunk : chunks) {
+            chunk.writeTo(out);
+        }
+        size = 0;
+    }
+
+    private void writeDelta(ByteArrayOutputStream chunk, long[] values) {
+        chunk.write(ColumnarFormat.ENCODING_DELTA_VARINT);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarLong(chunk, values[i] - previous);
+            previous = values[i];
+        }
+    }
+
+    private void writeVarLongs(ByteArrayOutputStream chunk, long[] values) {
+        chunk.write(ColumnarFormat.ENCODING_VARINT);
+        for (int i = 0; i < size; i++) {
+            writeVarLong(chunk, values[i]);
+        }
+    }
+
+    private void writeDictionary(ByteArrayOutputStream chunk,
+        String[] values) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        byte[] encoded = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Integer code = codes.get(values[i]);
+            if (code == null) {
+                code = dictionary.size();
+                if (code > 0xFF) {
+                    throw new IllegalStateException(
+                        "Dictionary column has more than 256 values");
+                }
+                codes.put(values[i], code);
+                dictionary.add(values[i]);
+            }
+            encoded[i] = (byte) (int) code;
+        }
+
+        chunk.write(ColumnarFormat.ENCODING_DICTIONARY);
+        writeVarLong(chunk, dictionary.size());
+        for (String entry : dictionary) {
+            writeString(chunk, entry);
+        }
+        chunk.write(encoded, 0, size);
+    }
+}
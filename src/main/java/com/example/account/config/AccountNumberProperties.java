@@ -0,0 +1,22 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("account.number")
+public class AccountNumberProperties {
+
+    /**
+     * 시퀀스 행이 없을 때 발급을 시작할 번호. 계좌번호는 10자리이므로
+     * {@link com.example.account.service.AccountNumberAllocator#MAX_ACCOUNT_NUMBER} 를 넘는 번호는 발급하지 않는다.
+     */
+    private long start = 1_000_000_000L;
+
+    /**
+     * 한 번에 예약해 메모리에서 나눠 줄 번호 수
+     */
+    private int blockSize = 100;
+}
@@ -0,0 +1,27 @@
+package com.example.account.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 취소 기간이 지난 거래를 보관 테이블로 옮기는 작업 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 한 트랜잭션에서 옮기는 거래 수
+     */
+    private int chunkSize = 1_000;
+
+    /**
+     * 이전 실행이 끝난 뒤 다음 실행까지의 간격
+     */
+    private Duration interval = Duration.ofHours(1);
+}
@@ -0,0 +1,80 @@
+package com.example.account.config;
+
+import com.example.account.type.BalanceMode;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.balance")
+public class BalanceProperties {
+
+    private BalanceMode mode = BalanceMode.LOCKED;
+
+    private Optimistic optimistic = new Optimistic();
+
+    private Partition partition = new Partition();
+
+    private Batch batch = new Batch();
+
+    private Shard shard = new Shard();
+
+    @Getter
+    @Setter
+    public static class Optimistic {
+
+        /**
+         * 첫 시도를 포함한 최대 시도 횟수
+         */
+        private int maxAttempts = 5;
+
+        private Duration backoffBase = Duration.ofMillis(10);
+        private Duration backoffMax = Duration.ofMillis(200);
+    }
+
+    @Getter
+    @Setter
+    public static class Partition {
+
+        /**
+         * 단일 스레드 파티션 개수. 계좌번호 해시로 파티션이 정해진다.
+         */
+        private int count = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * 파티션별 대기열 크기. 가득 차면 ACCOUNT_TRANSACTION_LOCK 으로 거절한다.
+         */
+        private int queueCapacity = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+
+        /**
+         * 배치 리더가 같은 계좌의 요청을 더 모으기 위해 기다리는 최대 시간
+         */
+        private Duration window = Duration.ofMillis(5);
+
+        /**
+         * 한 DB 트랜잭션에서 처리할 최대 요청 수. 이만큼 모이면 window 를 기다리지 않는다.
+         */
+        private int maxSize = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        /**
+         * 잔액을 여러 칸으로 나눠 칸별 락으로 처리할 계좌번호 (opt-in)
+         */
+        private Set<String> accounts = new HashSet<>();
+
+        private int slots = 8;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 캐시 크기/만료는 spring.cache.caffeine.spec 으로 정한다. 없는 키를 기억하는 캐시만
+ * account.negative-cache 의 짧은 만료 시간을 따로 쓴다.
+ * DELETE /actuator/caches/{name} 으로 캐시를 비울 수 있다.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNT_USER = "accountUser";
+    public static final String ACCOUNT_METADATA = "accountMetadata";
+    public static final String MISSING_ACCOUNT_USER = "missingAccountUser";
+    public static final String MISSING_ACCOUNT = "missingAccount";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> negativeCacheCustomizer(
+        NegativeCacheProperties negativeCacheProperties) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(MISSING_ACCOUNT_USER,
+                negativeCache(negativeCacheProperties));
+            cacheManager.registerCustomCache(MISSING_ACCOUNT,
+                negativeCache(negativeCacheProperties));
+        };
+    }
+
+    private static Cache<Object, Object> negativeCache(
+        NegativeCacheProperties properties) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account.config;
+
+import com.example.account.type.ExportFormat;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 거래 내보내기 CLI 실행 옵션. file 이 있을 때만 TransactionExportRunner 가 동작한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.export")
+public class ExportProperties {
+
+    private String file;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private ExportFormat format = ExportFormat.NDJSON;
+}
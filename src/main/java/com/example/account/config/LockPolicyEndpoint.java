@@ -0,0 +1,31 @@
+package com.example.account.config;
+
+import com.example.account.service.LockPolicyResolver;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/lockpolicies 로 현재 덮어쓰기 값을 조회하고, POST 로 다시 읽어 들인다.
+ */
+@Component
+@Endpoint(id = "lockpolicies")
+@RequiredArgsConstructor
+public class LockPolicyEndpoint {
+
+    private final LockPolicyResolver lockPolicyResolver;
+
+    @ReadOperation
+    public Map<String, LockProperties.Policy> policies() {
+        return lockPolicyResolver.getOverrides();
+    }
+
+    @WriteOperation
+    public Map<String, LockProperties.Policy> reload() {
+        lockPolicyResolver.reload();
+        return lockPolicyResolver.getOverrides();
+    }
+}
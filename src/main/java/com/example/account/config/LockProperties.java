@@ -0,0 +1,62 @@
+package com.example.account.config;
+
+import com.example.account.type.LockMode;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.lock")
+public class LockProperties {
+
+    private LockMode mode = LockMode.REDIS;
+
+    /**
+     * TWO_TIER 모드에서 사용하는 JVM 내부 stripe 개수 (2의 거듭제곱으로 올림)
+     */
+    private int localStripes = 1024;
+
+    /**
+     * 대기자가 있을 때 Redis 락을 반납하지 않고 넘겨줄 수 있는 최대 횟수
+     */
+    private int maxHandoffs = 32;
+
+    /**
+     * {@link com.example.account.aop.AccountLock#policy()} 이름별 덮어쓰기 값
+     */
+    private Map<String, Policy> policies = new HashMap<>();
+
+    /**
+     * Redis 가 느리거나 죽었을 때 서버 안의 락으로 대신하는 기준
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        private Duration waitTime;
+        private Duration leaseTime;
+        private Boolean fair;
+        private Boolean watchdog;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Redis 호출이 연속으로 이만큼 실패하면 Redis 락을 건너뛴다.
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * 건너뛰기 시작한 뒤 이 시간이 지나면 요청 하나로 Redis 를 다시 시험한다.
+         */
+        private Duration openDuration = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.account.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 없는 사용자 id, 계좌번호를 기억하는 캐시 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.negative-cache")
+public class NegativeCacheProperties {
+
+    /**
+     * 없다고 기억하는 시간. 다른 서버에서 사용자가 생기면 이 시간 동안은 없다고 답할 수 있다.
+     */
+    private Duration ttl = Duration.ofSeconds(10);
+
+    /**
+     * 캐시마다 기억하는 키 수의 상한
+     */
+    private long maxSize = 100_000;
+}
@@ -0,0 +1,28 @@
+package com.example.account.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 계좌 락을 잡기 전에 캐시된 값만으로 실패할 요청을 거르는 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.pre-lock-validation")
+public class PreLockValidationProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 마지막으로 본 잔액을 믿는 시간. 다른 서버의 취소 알림이 유실되면 이 시간 동안
+     * 실제보다 적은 잔액으로 거절할 수 있다.
+     */
+    private Duration balanceTtl = Duration.ofSeconds(5);
+
+    /**
+     * 잔액을 기억하는 계좌 수의 상한
+     */
+    private long maxAccounts = 100_000;
+}
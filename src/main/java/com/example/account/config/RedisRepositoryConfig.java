@@ -1,5 +1,6 @@
 package com.example.account.config;
 
+import java.time.Duration;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -10,17 +11,34 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RedisRepositoryConfig {
 
+    /**
+     * Redis 가 느리거나 죽었을 때 명령 하나가 기다리는 시간은 대략
+     * (retry 횟수 + 1) * timeout + retry 횟수 * retry 간격 을 넘지 않는다.
+     */
+    private static final int RETRY_ATTEMPTS = 1;
+    private static final int RETRY_INTERVAL_MILLIS = 100;
+
     @Value("${spring.redis.host}")
     private String redisHost;
 
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${spring.redis.timeout:3s}")
+    private Duration timeout;
+
+    @Value("${spring.redis.connect-timeout:10s}")
+    private Duration connectTimeout;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
         config.useSingleServer()
-            .setAddress("redis://" + redisHost + ":" + redisPort);
+            .setAddress("redis://" + redisHost + ":" + redisPort)
+            .setTimeout((int) timeout.toMillis())
+            .setConnectTimeout((int) connectTimeout.toMillis())
+            .setRetryAttempts(RETRY_ATTEMPTS)
+            .setRetryInterval(RETRY_INTERVAL_MILLIS);
         return Redisson.create(config);
     }
 
@@ -0,0 +1,67 @@
+package com.example.account.config;
+
+import com.example.account.service.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * account.datasource.replica.enabled 가 true 일 때 spring.datasource 를 primary 로,
+ * account.datasource.replica 를 복제본으로 두고 읽기 전용 트랜잭션을 복제본으로 보낸다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.datasource.replica",
+    name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+        DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+        ReplicaProperties replicaProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replicaProperties.getUrl())
+            .username(replicaProperties.getUsername())
+            .password(replicaProperties.getPassword())
+            .driverClassName(replicaProperties.getDriverClassName())
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+        HikariDataSource primaryDataSource,
+        HikariDataSource replicaDataSource,
+        ReplicaProperties replicaProperties) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource,
+            replicaProperties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+        HikariDataSource replicaDataSource,
+        ReplicaLagMonitor replicaLagMonitor,
+        ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(
+            new ReplicationRoutingDataSource(primaryDataSource,
+                replicaDataSource, replicaLagMonitor, readYourWritesTracker));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.account.config;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * checkInterval 마다 primary 의 replication_heartbeat 에 현재 시각을 쓰고 복제본에서 다시 읽는다.
+ * 두 값의 차이가 maxLag 를 넘거나 복제본을 읽지 못하면 복제본을 쓰지 않는다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long HEARTBEAT_ID = 1L;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaProperties replicaProperties;
+
+    private volatile boolean replicaUsable = false;
+    private volatile Duration lag;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource,
+        DataSource replicaDataSource, ReplicaProperties replicaProperties) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replicaProperties = replicaProperties;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Duration getLag() {
+        return lag;
+    }
+
+    @Scheduled(fixedDelayString =
+        "${account.datasource.replica.check-interval:PT0.5S}")
+    public void check() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (primary.update("update replication_heartbeat set beat_at = ? "
+                + "where id = ?", Timestamp.valueOf(now), HEARTBEAT_ID) == 0) {
+                primary.update("insert into replication_heartbeat(id, beat_at) "
+                    + "values (?, ?)", HEARTBEAT_ID, Timestamp.valueOf(now));
+            }
+
+            Timestamp replicated = replica.queryForObject(
+                "select beat_at from replication_heartbeat where id = ?",
+                Timestamp.class, HEARTBEAT_ID);
+            lag = Duration.between(replicated.toLocalDateTime(),
+                LocalDateTime.now());
+            setReplicaUsable(
+                lag.compareTo(replicaProperties.getMaxLag()) <= 0);
+        } catch (Exception e) {
+            lag = null;
+            if (replicaUsable) {
+                log.warn("Replica heartbeat check failed", e);
+            }
+            setReplicaUsable(false);
+        }
+    }
+
+    private void setReplicaUsable(boolean usable) {
+        if (replicaUsable != usable) {
+            log.info("Replica {} (lag : {})",
+                usable ? "in use" : "out of rotation", lag);
+        }
+        replicaUsable = usable;
+    }
+}
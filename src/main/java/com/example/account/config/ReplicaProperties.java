@@ -0,0 +1,43 @@
+package com.example.account.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 읽기 전용 트랜잭션을 보낼 복제본 설정. enabled 가 false 이면 모든 쿼리가 spring.datasource 로 간다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.datasource.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    /**
+     * 복제본의 heartbeat 가 이보다 뒤처지면 읽기도 primary 로 보낸다.
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /**
+     * heartbeat 를 쓰고 복제본 지연을 확인하는 간격
+     */
+    private Duration checkInterval = Duration.ofMillis(500);
+
+    /**
+     * 쓰기 직후 같은 사용자/계좌의 읽기를 primary 에 고정하는 시간.
+     * 복제본을 쓰는 동안의 지연은 최대 maxLag 이고 판단은 checkInterval 마다 갱신되므로 둘의 합이다.
+     */
+    public Duration getStickiness() {
+        return maxLag.plus(checkInterval);
+    }
+}
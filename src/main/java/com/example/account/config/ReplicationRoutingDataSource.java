@@ -0,0 +1,42 @@
+package com.example.account.config;
+
+import com.example.account.service.ReadYourWritesTracker;
+import com.example.account.type.DataSourceRole;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본으로, 나머지는 primary 로 보낸다. 복제본이 maxLag 보다 뒤처졌거나
+ * 같은 사용자/계좌에 방금 쓰기가 있었다면 읽기도 primary 로 보낸다.
+ * 트랜잭션 시작 시점에는 아직 readOnly 표시가 없으므로 LazyConnectionDataSourceProxy 로 감싸
+ * 첫 쿼리 때 커넥션을 고르게 해야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica,
+        ReplicaLagMonitor replicaLagMonitor,
+        ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(
+            DataSourceRole.PRIMARY, primary,
+            DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && !readYourWritesTracker.isPinnedToPrimary()
+            && replicaLagMonitor.isReplicaUsable()) {
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.account.config;
+
+import com.example.account.service.TimeOrderedTransactionIdGenerator;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.service.UuidTransactionIdGenerator;
+import com.example.account.type.TransactionIdType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TransactionIdConfig {
+
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(
+        TransactionIdProperties transactionIdProperties) {
+        if (transactionIdProperties.getType() == TransactionIdType.UUID) {
+            return new UuidTransactionIdGenerator();
+        }
+        return new TimeOrderedTransactionIdGenerator(
+            transactionIdProperties.getNodeId());
+    }
+}
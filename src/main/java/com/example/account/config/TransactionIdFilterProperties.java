@@ -0,0 +1,38 @@
+package com.example.account.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 없는 거래 ID 를 DB 조회 없이 거르는 Bloom filter 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.transaction-id-filter")
+public class TransactionIdFilterProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 처음 만들 필터의 용량. 다시 만들 때는 테이블 행 수의 두 배와 이 값 중 큰 값을 쓴다.
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * 없는 ID 를 있다고 잘못 답하는 비율의 상한. 오탐이면 DB 를 한 번 더 읽을 뿐이다.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * 테이블을 다시 읽어 필터를 새로 만드는 간격. 다른 서버가 만든 ID 는 다음 재구성 때 들어온다.
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    /**
+     * 재구성을 시작한 시각보다 이만큼 전에 만들어진 ID 부터는 필터가 모를 수 있다고 보고 DB 에 묻는다.
+     * 서버 간 시계 차이와 가장 긴 거래 트랜잭션 시간보다 커야 한다.
+     */
+    private Duration clockSkew = Duration.ofMinutes(1);
+}
@@ -0,0 +1,19 @@
+package com.example.account.config;
+
+import com.example.account.type.TransactionIdType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("account.transaction-id")
+public class TransactionIdProperties {
+
+    private TransactionIdType type = TransactionIdType.TIME_ORDERED;
+
+    /**
+     * TIME_ORDERED 에서 서버마다 다르게 주는 번호 (0 ~ 65535)
+     */
+    private int nodeId = 0;
+}
@@ -0,0 +1,20 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * GET /transaction/{transactionId} 응답 JSON 캐시 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties("account.transaction-response-cache")
+public class TransactionResponseCacheProperties {
+
+    /**
+     * 캐시가 들고 있을 응답 바이트 합의 상한. 넘으면 오래 쓰지 않은 응답부터 뺀다.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+}
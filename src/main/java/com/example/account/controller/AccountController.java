@@ -5,7 +5,6 @@ import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
 import com.example.account.service.AccountService;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -47,11 +46,6 @@ public class AccountController {
     public List<AccountInfo> getAccountsByUserId(
         @RequestParam("user_id") Long userId
     ) {
-        return accountService.getAccountByUserId(userId)
-            .stream().map(accountDto -> AccountInfo.builder()
-                .accountNumber(accountDto.getAccountNumber())
-                .balance(accountDto.getBalance())
-                .build()
-            ).collect(Collectors.toList());
+        return accountService.getAccountInfosByUserId(userId);
     }
 }
@@ -1,22 +1,32 @@
 package com.example.account.controller;
 
 import com.example.account.aop.AccountLock;
+import com.example.account.config.BalanceProperties;
 import com.example.account.dto.CancelBalance;
-import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.service.BalanceShardService;
+import com.example.account.service.TransactionResponseCache;
 import com.example.account.service.TransactionService;
+import com.example.account.service.UseBalanceBatcher;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * 잔액 관련 컨트롤러 1. 잔액 사용 2. 잔액 사용 취소 3. 거래 확인
+ * 잔액 관련 컨트롤러 1. 잔액 사용 2. 잔액 사용 취소 3. 거래 확인 4. 계좌별 거래 내역
  */
 @Slf4j
 @RestController
@@ -24,12 +34,26 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final UseBalanceBatcher useBalanceBatcher;
+    private final BalanceProperties balanceProperties;
+    private final BalanceShardService balanceShardService;
+    private final TransactionResponseCache transactionResponseCache;
 
     @PostMapping("/transaction/use")
-    @AccountLock
+    @AccountLock(policy = "use", tryLockTime = 1000L)
     public UseBalance.Response useBalance(
         @Valid @RequestBody UseBalance.Request request
     ) throws InterruptedException {
+        if (balanceShardService.isSharded(request.getAccountNumber())) {
+            return useSlotBalance(request);
+        }
+        if (balanceProperties.getMode() == BalanceMode.BATCHED) {
+            // 실패 거래도 배치 안에서 요청별로 저장된다.
+            return UseBalance.Response.from(useBalanceBatcher.useBalance(
+                request.getUserId(),
+                request.getAccountNumber(), request.getAmount()));
+        }
+
         try {
             Thread.sleep(5000L);
             return UseBalance.Response.from(transactionService.useBalance(
@@ -47,12 +71,35 @@ public class TransactionController {
         }
     }
 
+    private UseBalance.Response useSlotBalance(UseBalance.Request request) {
+        try {
+            return UseBalance.Response.from(balanceShardService.useBalance(
+                request.getUserId(),
+                request.getAccountNumber(), request.getAmount()));
+        } catch (AccountException e) {
+            log.error("Failed to use balance.");
+
+            transactionService.saveFailedUseTransaction(
+                request.getAccountNumber(),
+                request.getAmount()
+            );
+
+            throw e;
+        }
+    }
+
     @PostMapping("/transaction/cancel")
-    @AccountLock
+    @AccountLock(policy = "cancel", tryLockTime = 5000L)
     public CancelBalance.Response cancelBalance(
         @Valid @RequestBody CancelBalance.Request request
     ) {
         try {
+            if (balanceShardService.isSharded(request.getAccountNumber())) {
+                return CancelBalance.Response.from(
+                    balanceShardService.cancelBalance(
+                        request.getTransactionId(),
+                        request.getAccountNumber(), request.getAmount()));
+            }
             return CancelBalance.Response.from(
                 transactionService.cancelBalance(
                     request.getTransactionId(),
@@ -69,11 +116,30 @@ public class TransactionController {
         }
     }
 
+    /**
+     * 거래는 바뀌지 않으므로 직렬화된 응답을 캐시에서 그대로 내려준다.
+     */
     @GetMapping("/transaction/{transactionId}")
-    public QueryTransactionResponse queryTransaction(
+    public ResponseEntity<byte[]> queryTransaction(
         @PathVariable String transactionId
     ) {
-        return QueryTransactionResponse.from(
-            transactionService.queryTransaction(transactionId));
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(transactionResponseCache.get(transactionId,
+                transactionService::queryTransactionResponse));
+    }
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistoryResponse getTransactionHistory(
+        @PathVariable String accountNumber,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        @RequestParam(value = "transaction_type", required = false)
+        TransactionType transactionType,
+        @RequestParam(value = "transaction_result_type", required = false)
+        TransactionResultType transactionResultType
+    ) {
+        return transactionService.getTransactionHistory(accountNumber, cursor,
+            size, transactionType, transactionResultType);
     }
 }
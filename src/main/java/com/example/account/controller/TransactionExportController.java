@@ -0,0 +1,48 @@
+package com.example.account.controller;
+
+import com.example.account.service.TransactionExportService;
+import com.example.account.type.ExportFormat;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 정산용 거래 내보내기. 응답은 DB 커서에서 읽는 대로 흘려 보낸다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class TransactionExportController {
+
+    private final TransactionExportService transactionExportService;
+
+    @GetMapping("/transaction/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+        @RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME)
+        LocalDateTime from,
+        @RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME)
+        LocalDateTime to,
+        @RequestParam(value = "format", defaultValue = "NDJSON")
+        ExportFormat format
+    ) {
+        // 스트리밍이 시작되면 오류 응답을 쓸 수 없으므로 먼저 검증한다.
+        transactionExportService.validateRange(from, to);
+
+        StreamingResponseBody body = out ->
+            transactionExportService.export(from, to, format, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions."
+                    + format.name().toLowerCase(Locale.ROOT) + "\"")
+            .body(body);
+    }
+}
@@ -8,9 +8,13 @@ import com.example.account.type.AccountStatus;
 import java.time.LocalDateTime;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
+import javax.persistence.FetchType;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -24,10 +28,16 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+    @Index(name = "ux_account_account_number",
+        columnList = "account_number", unique = true),
+    @Index(name = "ix_account_account_user_id",
+        columnList = "account_user_id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Account extends BaseEntity {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
 
     private String accountNumber;
@@ -40,6 +50,9 @@ public class Account extends BaseEntity {
     private LocalDateTime registeredAt;
     private LocalDateTime unregisteredAt;
 
+    @Version
+    private Long version;
+
     public void useBalance(Long amount) {
         if (amount > balance) {
             throw new AccountException(AMOUNT_EXCEED_BALANCE);
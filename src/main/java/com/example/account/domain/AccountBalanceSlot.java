@@ -0,0 +1,36 @@
+package com.example.account.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.FetchType;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+/**
+ * 쓰기가 몰리는 계좌의 잔액을 나눠 담는 칸. 계좌의 잔액은 Account.balance 와 모든 칸의 합이다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+    columnNames = {"account_id", "slot_no"}))
+@EntityListeners(AuditingEntityListener.class)
+public class AccountBalanceSlot extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+
+    private Integer slotNo;
+
+    private Long balance;
+}
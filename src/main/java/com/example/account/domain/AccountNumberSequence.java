@@ -0,0 +1,26 @@
+package com.example.account.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 계좌번호 발급용 시퀀스. nextValue 는 아직 어떤 서버에도 예약되지 않은 첫 번호이다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class AccountNumberSequence {
+
+    @Id
+    private String name;
+
+    private Long nextValue;
+}
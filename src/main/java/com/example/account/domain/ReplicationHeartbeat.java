@@ -0,0 +1,27 @@
+package com.example.account.domain;
+
+import java.time.LocalDateTime;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * primary 에 주기적으로 현재 시각을 쓰고, 복제본에서 읽은 값과의 차이로 복제 지연을 잰다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class ReplicationHeartbeat {
+
+    @Id
+    private Long id;
+
+    private LocalDateTime beatAt;
+}
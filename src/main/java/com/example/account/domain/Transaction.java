@@ -5,9 +5,12 @@ import com.example.account.type.TransactionType;
 import java.time.LocalDateTime;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
+import javax.persistence.FetchType;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -21,6 +24,14 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+    @Index(name = "ux_transaction_transaction_id",
+        columnList = "transaction_id", unique = true),
+    @Index(name = "ix_transaction_account_id_transaction_at_id",
+        columnList = "account_id, transaction_at, id"),
+    @Index(name = "ix_transaction_transaction_at",
+        columnList = "transaction_at")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction extends BaseEntity {
 
@@ -29,7 +40,7 @@ public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
     private Long amount;
     private Long balanceSnapshot;
@@ -0,0 +1,54 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import java.time.LocalDateTime;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 취소 가능 기간이 지나 더 이상 바뀌지 않는 거래. transaction 테이블에서 옮겨 온 행으로,
+ * id 는 원래 거래의 id 를 그대로 쓰고 계좌는 조인 없이 읽도록 id 와 계좌번호를 함께 둔다.
+ * id 와 transactionAt 이 그대로이므로 거래 내역 커서와 내보내기 순서가 두 테이블에서 같다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+    @Index(name = "ux_transaction_archive_transaction_id",
+        columnList = "transaction_id", unique = true),
+    @Index(name = "ix_transaction_archive_account_at",
+        columnList = "account_id, transaction_at, id"),
+    @Index(name = "ix_transaction_archive_at",
+        columnList = "transaction_at, id")
+})
+public class TransactionArchive {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+
+    private Long accountId;
+    private String accountNumber;
+    private Long amount;
+    private Long balanceSnapshot;
+
+    private String transactionId;
+    private LocalDateTime transactionAt;
+}
@@ -0,0 +1,33 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.type.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 잔액을 뺀 계좌 정보. 해지 외에는 바뀌지 않으므로 AccountMetadataCache 에 둔다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountMetadata {
+    private Long id;
+    private String accountNumber;
+    private Long accountUserId;
+    private AccountStatus accountStatus;
+
+    public static AccountMetadata fromEntity(Account account) {
+        return AccountMetadata.builder()
+            .id(account.getId())
+            .accountNumber(account.getAccountNumber())
+            .accountUserId(account.getAccountUser().getId())
+            .accountStatus(account.getAccountStatus())
+            .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.account.dto;
+
+import static com.example.account.type.ErrorCode.INVALID_REQUEST;
+
+import com.example.account.exception.AccountException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 거래 내역 페이지의 마지막 거래 위치 (transactionAt, id). 클라이언트에는 불투명한 문자열로 넘긴다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime transactionAt;
+    private final Long id;
+
+    public static TransactionCursor from(TransactionHistoryItem item) {
+        return new TransactionCursor(item.getTransactionAt(), item.getId());
+    }
+
+    public String encode() {
+        String raw = transactionAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor),
+                StandardCharsets.UTF_8);
+            int separatorAt = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(
+                LocalDateTime.parse(raw.substring(0, separatorAt)),
+                Long.parseLong(raw.substring(separatorAt + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException
+                 | DateTimeParseException e) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.account.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionHistoryResponse {
+
+    private List<TransactionHistoryItem> transactions;
+
+    /**
+     * 다음 페이지를 요청할 때 cursor 로 넘긴다. 마지막 페이지면 null.
+     */
+    private String nextCursor;
+}
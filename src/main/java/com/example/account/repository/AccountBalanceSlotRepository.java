@@ -0,0 +1,27 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceSlot;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceSlotRepository extends
+    JpaRepository<AccountBalanceSlot, Long> {
+
+    boolean existsByAccount(Account account);
+
+    List<AccountBalanceSlot> findByAccountAccountNumberOrderBySlotNo(
+        String accountNumber);
+
+    List<AccountBalanceSlot> findByAccountAndSlotNoInOrderBySlotNo(
+        Account account, Collection<Integer> slotNos);
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceSlot s "
+        + "where s.account = :account")
+    Long sumBalanceByAccount(@Param("account") Account account);
+}
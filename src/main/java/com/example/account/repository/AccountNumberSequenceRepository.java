@@ -0,0 +1,16 @@
+package com.example.account.repository;
+
+import com.example.account.domain.AccountNumberSequence;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountNumberSequenceRepository extends
+    JpaRepository<AccountNumberSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AccountNumberSequence> findWithLockByName(String name);
+}
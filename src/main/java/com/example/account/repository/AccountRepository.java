@@ -2,17 +2,59 @@ package com.example.account.repository;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountInfo;
+import com.example.account.dto.AccountMetadata;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
-    Optional<Account> findFirstByOrderByIdDesc();
-
     Integer countAccountByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String AccountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    @Query("select new com.example.account.dto.AccountMetadata(a.id, "
+        + "a.accountNumber, a.accountUser.id, a.accountStatus) "
+        + "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountMetadata> findMetadataByAccountNumber(
+        @Param("accountNumber") String accountNumber);
+
+    /**
+     * 계좌 목록 응답에 필요한 컬럼만 바로 AccountInfo 로 읽는다.
+     * 잔액이 칸으로 나뉜 계좌는 칸 잔액의 합을 더한다.
+     */
+    @Query("select new com.example.account.dto.AccountInfo(a.accountNumber, "
+        + "a.balance + coalesce(sum(s.balance), 0)) "
+        + "from Account a left join AccountBalanceSlot s on s.account = a "
+        + "where a.accountUser.id = :userId "
+        + "group by a.id, a.accountNumber, a.balance "
+        + "order by a.id")
+    List<AccountInfo> findAccountInfosByUserId(@Param("userId") Long userId);
+
+    /**
+     * 잔액이 충분하고 사용 중인 계좌일 때만 한 문장으로 차감한다.
+     *
+     * @return 변경된 행 수 (0 이면 계좌가 없거나, 해지되었거나, 잔액이 부족하다)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, "
+        + "a.version = a.version + 1, a.updatedAt = current_timestamp "
+        + "where a.accountNumber = :accountNumber "
+        + "and a.balance >= :amount "
+        + "and a.accountStatus = com.example.account.type.AccountStatus.IN_USE")
+    int useBalanceIfSufficient(@Param("accountNumber") String accountNumber,
+        @Param("amount") Long amount);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, "
+        + "a.version = a.version + 1, a.updatedAt = current_timestamp "
+        + "where a.accountNumber = :accountNumber")
+    int cancelBalance(@Param("accountNumber") String accountNumber,
+        @Param("amount") Long amount);
 }
@@ -1,6 +1,11 @@
 package com.example.account.repository;
 
+import com.example.account.config.CacheConfig;
 import com.example.account.domain.AccountUser;
+import java.util.Optional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,4 +13,32 @@ import org.springframework.stereotype.Repository;
 public interface AccountUserRepository extends
     JpaRepository<AccountUser, Long> {
 
+    /**
+     * 사용자는 거의 바뀌지 않으므로 JVM 안 캐시에서 먼저 찾는다. 없는 사용자는 캐시하지 않는다.
+     * 캐시된 엔티티는 여러 요청이 함께 쓰는 준영속 객체이므로 읽기만 해야 한다.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_USER,
+        unless = "#result == null")
+    Optional<AccountUser> findById(Long id);
+
+    /**
+     * 새 사용자는 저장 뒤에 id 가 정해지므로, 저장이 끝난 뒤 없는 사용자 캐시에서도 뺀다.
+     */
+    @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ACCOUNT_USER, key = "#p0.id",
+            condition = "#p0.id != null"),
+        @CacheEvict(cacheNames = CacheConfig.MISSING_ACCOUNT_USER,
+            key = "#p0.id", condition = "#p0.id != null")
+    })
+    <S extends AccountUser> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNT_USER, key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNT_USER, key = "#p0.id")
+    void delete(AccountUser entity);
 }
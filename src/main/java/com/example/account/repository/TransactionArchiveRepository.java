@@ -0,0 +1,120 @@
+package com.example.account.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import com.example.account.domain.TransactionArchive;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransactionArchiveRepository extends
+    JpaRepository<TransactionArchive, Long> {
+
+    boolean existsByTransactionId(String transactionId);
+
+    @Query("select new com.example.account.dto.QueryTransactionResponse("
+        + "t.accountNumber, t.transactionType, t.transactionResultType, "
+        + "t.transactionId, t.amount, t.transactionAt) "
+        + "from TransactionArchive t "
+        + "where t.transactionId = :transactionId")
+    Optional<QueryTransactionResponse> findResponseByTransactionId(
+        @Param("transactionId") String transactionId);
+
+    /**
+     * TransactionRepository.findHistory 와 같은 순서로 보관된 거래를 읽는다.
+     */
+    @Query("select new com.example.account.dto.TransactionHistoryItem("
+        + "t.id, t.transactionId, t.transactionType, "
+        + "t.transactionResultType, t.amount, t.balanceSnapshot, "
+        + "t.transactionAt) "
+        + "from TransactionArchive t "
+        + "where t.accountId = :accountId "
+        + "and (:transactionType is null "
+        + "or t.transactionType = :transactionType) "
+        + "and (:transactionResultType is null "
+        + "or t.transactionResultType = :transactionResultType) "
+        + "order by t.transactionAt desc, t.id desc")
+    List<TransactionHistoryItem> findHistory(
+        @Param("accountId") Long accountId,
+        @Param("transactionType") TransactionType transactionType,
+        @Param("transactionResultType")
+        TransactionResultType transactionResultType,
+        Pageable pageable);
+
+    /**
+     * TransactionRepository.findHistoryAfter 와 같은 커서로 보관된 거래를 이어 읽는다.
+     */
+    @Query("select new com.example.account.dto.TransactionHistoryItem("
+        + "t.id, t.transactionId, t.transactionType, "
+        + "t.transactionResultType, t.amount, t.balanceSnapshot, "
+        + "t.transactionAt) "
+        + "from TransactionArchive t "
+        + "where t.accountId = :accountId "
+        + "and (t.transactionAt < :transactionAt "
+        + "or (t.transactionAt = :transactionAt and t.id < :id)) "
+        + "and (:transactionType is null "
+        + "or t.transactionType = :transactionType) "
+        + "and (:transactionResultType is null "
+        + "or t.transactionResultType = :transactionResultType) "
+        + "order by t.transactionAt desc, t.id desc")
+    List<TransactionHistoryItem> findHistoryAfter(
+        @Param("accountId") Long accountId,
+        @Param("transactionAt") LocalDateTime transactionAt,
+        @Param("id") Long id,
+        @Param("transactionType") TransactionType transactionType,
+        @Param("transactionResultType")
+        TransactionResultType transactionResultType,
+        Pageable pageable);
+
+    /**
+     * 기간 내 보관된 거래를 커서로 조금씩 읽는다. 계좌는 보관할 때 함께 옮겨 두었으므로 조인하지 않는다.
+     * 반환된 Stream 은 트랜잭션 안에서 쓰고 반드시 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.account.dto.TransactionExportRow("
+        + "t.id, t.accountId, t.transactionId, t.accountNumber, "
+        + "t.transactionType, t.transactionResultType, t.amount, "
+        + "t.balanceSnapshot, t.transactionAt) "
+        + "from TransactionArchive t "
+        + "where t.transactionAt >= :from and t.transactionAt < :to "
+        + "order by t.transactionAt, t.id")
+    Stream<TransactionExportRow> streamExportRows(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to);
+
+    /**
+     * 보관된 거래 ID 를 커서로 조금씩 읽는다. 반환된 Stream 은 트랜잭션 안에서 쓰고 반드시 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.transactionId from TransactionArchive t")
+    Stream<String> streamTransactionIds();
+
+    /**
+     * 지정한 거래들을 insert ... select 한 문장으로 보관 테이블에 복사한다.
+     */
+    @Modifying
+    @Query("insert into TransactionArchive (id, transactionType, "
+        + "transactionResultType, accountId, accountNumber, amount, "
+        + "balanceSnapshot, transactionId, transactionAt) "
+        + "select t.id, t.transactionType, t.transactionResultType, a.id, "
+        + "a.accountNumber, t.amount, t.balanceSnapshot, t.transactionId, "
+        + "t.transactionAt "
+        + "from Transaction t join t.account a "
+        + "where t.id in :ids")
+    int copyFromTransactions(@Param("ids") List<Long> ids);
+}
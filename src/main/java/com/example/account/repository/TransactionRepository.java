@@ -1,8 +1,23 @@
 package com.example.account.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import com.example.account.domain.Transaction;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -10,4 +25,96 @@ public interface TransactionRepository extends
     JpaRepository<Transaction, Long> {
 
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    /**
+     * transactionAt 이 cutoff 보다 오래된 거래 id 를 오래된 순으로 읽는다. 보관 대상을 나눠 옮길 때 쓴다.
+     */
+    @Query("select t.id from Transaction t "
+        + "where t.transactionAt < :cutoff "
+        + "order by t.transactionAt, t.id")
+    List<Long> findIdsByTransactionAtBefore(
+        @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * 거래 조회 응답에 필요한 컬럼만 바로 QueryTransactionResponse 로 읽는다.
+     */
+    @Query("select new com.example.account.dto.QueryTransactionResponse("
+        + "a.accountNumber, t.transactionType, t.transactionResultType, "
+        + "t.transactionId, t.amount, t.transactionAt) "
+        + "from Transaction t join t.account a "
+        + "where t.transactionId = :transactionId")
+    Optional<QueryTransactionResponse> findResponseByTransactionId(
+        @Param("transactionId") String transactionId);
+
+    /**
+     * 계좌의 최신 거래부터 (transactionAt, id) 내림차순으로 읽는다.
+     * (account_id, transaction_at, id) 인덱스를 거꾸로 훑으며 limit 만큼만 읽는다.
+     */
+    @Query("select new com.example.account.dto.TransactionHistoryItem("
+        + "t.id, t.transactionId, t.transactionType, "
+        + "t.transactionResultType, t.amount, t.balanceSnapshot, "
+        + "t.transactionAt) "
+        + "from Transaction t "
+        + "where t.account.id = :accountId "
+        + "and (:transactionType is null "
+        + "or t.transactionType = :transactionType) "
+        + "and (:transactionResultType is null "
+        + "or t.transactionResultType = :transactionResultType) "
+        + "order by t.transactionAt desc, t.id desc")
+    List<TransactionHistoryItem> findHistory(
+        @Param("accountId") Long accountId,
+        @Param("transactionType") TransactionType transactionType,
+        @Param("transactionResultType")
+        TransactionResultType transactionResultType,
+        Pageable pageable);
+
+    /**
+     * 커서 (transactionAt, id) 보다 오래된 거래부터 읽는다. OFFSET 없이 인덱스에서 바로 이어 읽으므로
+     * 몇 번째 페이지든 비용이 같다.
+     */
+    @Query("select new com.example.account.dto.TransactionHistoryItem("
+        + "t.id, t.transactionId, t.transactionType, "
+        + "t.transactionResultType, t.amount, t.balanceSnapshot, "
+        + "t.transactionAt) "
+        + "from Transaction t "
+        + "where t.account.id = :accountId "
+        + "and (t.transactionAt < :transactionAt "
+        + "or (t.transactionAt = :transactionAt and t.id < :id)) "
+        + "and (:transactionType is null "
+        + "or t.transactionType = :transactionType) "
+        + "and (:transactionResultType is null "
+        + "or t.transactionResultType = :transactionResultType) "
+        + "order by t.transactionAt desc, t.id desc")
+    List<TransactionHistoryItem> findHistoryAfter(
+        @Param("accountId") Long accountId,
+        @Param("transactionAt") LocalDateTime transactionAt,
+        @Param("id") Long id,
+        @Param("transactionType") TransactionType transactionType,
+        @Param("transactionResultType")
+        TransactionResultType transactionResultType,
+        Pageable pageable);
+
+    /**
+     * 모든 거래 ID 를 커서로 조금씩 읽는다. 거래 ID 필터를 다시 만들 때 쓴다.
+     * 반환된 Stream 은 트랜잭션 안에서 쓰고 반드시 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.transactionId from Transaction t")
+    Stream<String> streamTransactionIds();
+
+    /**
+     * 기간 내 거래를 커서로 조금씩 읽는다. 엔티티가 아닌 행으로 읽으므로 영속성 컨텍스트에 쌓이지 않는다.
+     * 반환된 Stream 은 트랜잭션 안에서 쓰고 반드시 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.account.dto.TransactionExportRow("
+        + "t.id, a.id, t.transactionId, a.accountNumber, t.transactionType, "
+        + "t.transactionResultType, t.amount, t.balanceSnapshot, "
+        + "t.transactionAt) "
+        + "from Transaction t join t.account a "
+        + "where t.transactionAt >= :from and t.transactionAt < :to "
+        + "order by t.transactionAt, t.id")
+    Stream<TransactionExportRow> streamExportRows(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,31 @@
+package com.example.account.service;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountBalanceSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 계좌의 실제 잔액을 읽는다. 칸으로 나뉜 계좌는 Account.balance 에 모든 칸의 합을 더한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountBalanceReader {
+
+    private final BalanceProperties balanceProperties;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+
+    public boolean isSharded(String accountNumber) {
+        return balanceProperties.getShard().getAccounts()
+            .contains(accountNumber);
+    }
+
+    public long totalBalance(Account account) {
+        if (!isSharded(account.getAccountNumber())) {
+            return account.getBalance();
+        }
+        return account.getBalance()
+            + accountBalanceSlotRepository.sumBalanceByAccount(account);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.account.service;
+
+import com.example.account.config.LockProperties;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.redisson.api.RLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 JVM 안에서 같은 계좌를 노리는 스레드들을 계좌번호 해시 기준 stripe 에서 먼저 줄 세운다.
+ * stripe 는 자신이 대신 잡고 있는 Redis 락을 기억해 두었다가, 대기자가 있으면 반납하지 않고 넘겨준다.
+ * 넘겨줄 때는 가장 오래 기다린 대기자를 바로 소유자로 정하므로, 그 대기자가 시간 초과나 interrupt 로
+ * 포기하더라도 Redis 락을 반납할 소유자가 남는다.
+ */
+@Component
+public class AccountLockStripes {
+
+    private final Stripe[] stripes;
+
+    public AccountLockStripes(LockProperties lockProperties) {
+        int size = 1;
+        while (size < lockProperties.getLocalStripes()) {
+            size <<= 1;
+        }
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            // Redisson 은 락 소유자를 "클라이언트 id:스레드 id" 로 구분하므로 실제 스레드 id 와 겹치지 않도록 음수를 쓴다.
+            stripes[i] = new Stripe(-(i + 1L));
+        }
+    }
+
+    public Stripe stripeFor(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    public static final class Stripe {
+
+        private final long ownerId;
+
+        private Thread owner;
+        private Thread handedTo;
+        private final ArrayDeque<Thread> waiters = new ArrayDeque<>();
+
+        private String remoteAccountNumber;
+        private RLock remoteLock;
+        private long remoteAcquiredAt;
+        private long remoteLeaseNanos;
+        private int handoffs;
+
+        private Stripe(long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        public long getOwnerId() {
+            return ownerId;
+        }
+
+        /**
+         * 락을 넘겨받았으면 시간이 지났거나 interrupt 되었더라도 true 를 반환한다.
+         * interrupt 로 깨어난 경우에는 interrupt 상태를 되살려 둔다.
+         */
+        public synchronized boolean tryLock(long timeoutNanos)
+            throws InterruptedException {
+            Thread current = Thread.currentThread();
+            long deadline = System.nanoTime() + timeoutNanos;
+            waiters.addLast(current);
+            try {
+                while (owner != null) {
+                    if (takeHandOff(current)) {
+                        return true;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                owner = current;
+                return true;
+            } catch (InterruptedException e) {
+                if (takeHandOff(current)) {
+                    current.interrupt();
+                    return true;
+                }
+                throw e;
+            } finally {
+                waiters.remove(current);
+            }
+        }
+
+        public synchronized boolean isHeldByCurrentThread() {
+            return owner == Thread.currentThread();
+        }
+
+        /**
+         * 현재 stripe 가 해당 계좌의 Redis 락을 아직 넉넉한 lease 와 함께 들고 있는지 확인한다.
+         */
+        public synchronized boolean holdsRemote(String accountNumber) {
+            return accountNumber.equals(remoteAccountNumber)
+                && hasEnoughLease(System.nanoTime());
+        }
+
+        public synchronized String getRemoteAccountNumber() {
+            return remoteAccountNumber;
+        }
+
+        public synchronized RLock getRemoteLock() {
+            return remoteLock;
+        }
+
+        public synchronized void remoteAcquired(String accountNumber,
+            RLock lock, long leaseNanos) {
+            checkOwner();
+            remoteAccountNumber = accountNumber;
+            remoteLock = lock;
+            remoteAcquiredAt = System.nanoTime();
+            remoteLeaseNanos = leaseNanos;
+            handoffs = 0;
+        }
+
+        public synchronized void remoteReleased() {
+            checkOwner();
+            remoteAccountNumber = null;
+            remoteLock = null;
+            handoffs = 0;
+        }
+
+        /**
+         * 대기자가 있고 Redis 락을 더 써도 되는 상황이면 Redis 락은 쥔 채로 로컬 락만
+         * 가장 오래 기다린 대기자에게 넘긴다.
+         * false 를 반환하면 호출자가 여전히 소유자이며, Redis 락을 반납한 뒤 unlock 해야 한다.
+         */
+        public synchronized boolean handOff(int maxHandoffs) {
+            checkOwner();
+            if (waiters.isEmpty() || remoteAccountNumber == null
+                || handoffs >= maxHandoffs
+                || !hasEnoughLease(System.nanoTime())) {
+                return false;
+            }
+            handoffs++;
+            owner = waiters.pollFirst();
+            handedTo = owner;
+            notifyAll();
+            return true;
+        }
+
+        public synchronized void unlock() {
+            checkOwner();
+            owner = null;
+            notifyAll();
+        }
+
+        private boolean takeHandOff(Thread current) {
+            if (handedTo != current) {
+                return false;
+            }
+            handedTo = null;
+            return true;
+        }
+
+        private boolean hasEnoughLease(long now) {
+            // lease 가 0 이하이면 watchdog 이 갱신하므로 만료를 따지지 않는다.
+            return remoteLeaseNanos <= 0
+                || now - remoteAcquiredAt < remoteLeaseNanos / 2;
+        }
+
+        private void checkOwner() {
+            if (owner != Thread.currentThread()) {
+                throw new IllegalMonitorStateException(
+                    "Stripe is not held by current thread");
+            }
+        }
+    }
+}
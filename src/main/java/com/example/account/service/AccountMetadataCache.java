@@ -0,0 +1,90 @@
+package com.example.account.service;
+
+import com.example.account.config.CacheConfig;
+import com.example.account.domain.Account;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.repository.AccountRepository;
+import java.util.Optional;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * 계좌번호별 AccountMetadata 캐시. 계좌를 만들거나 해지한 서버는 커밋 후 새 값으로 바꾸고
+ * Redis pub/sub 으로 다른 서버에 알려 각자 캐시에서 빼게 한다.
+ * 알림이 유실되어도 spring.cache.caffeine.spec 의 만료 시간이 지나면 다시 읽는다.
+ * 같은 알림으로 NegativeLookupCache 가 기억하던 없는 계좌번호도 뺀다.
+ */
+@Slf4j
+@Service
+public class AccountMetadataCache {
+
+    static final String INVALIDATION_TOPIC = "account-metadata-invalidation";
+
+    private final AccountRepository accountRepository;
+    private final Cache cache;
+    private final Cache missingAccounts;
+    private final AccountNumberTopic topic;
+
+    public AccountMetadataCache(AccountRepository accountRepository,
+        CacheManager cacheManager, RedissonClient redissonClient) {
+        this.accountRepository = accountRepository;
+        this.cache = cacheManager.getCache(CacheConfig.ACCOUNT_METADATA);
+        this.missingAccounts = cacheManager.getCache(
+            CacheConfig.MISSING_ACCOUNT);
+        this.topic = new AccountNumberTopic(redissonClient,
+            INVALIDATION_TOPIC, this::evict);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        topic.subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        topic.unsubscribe();
+    }
+
+    /**
+     * 없는 계좌는 캐시하지 않는다.
+     */
+    public Optional<AccountMetadata> get(String accountNumber) {
+        AccountMetadata cached = cache.get(accountNumber,
+            AccountMetadata.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<AccountMetadata> loaded = accountRepository
+            .findMetadataByAccountNumber(accountNumber);
+        loaded.ifPresent(metadata -> cache.put(accountNumber, metadata));
+        return loaded;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 캐시를 account 의 값으로 바꾸고 다른 서버에 무효화를 알린다.
+     */
+    public void update(Account account) {
+        AccountMetadata metadata = AccountMetadata.fromEntity(account);
+        AccountNumberTopic.afterCommit(() -> {
+            cache.put(metadata.getAccountNumber(), metadata);
+            missingAccounts.evict(metadata.getAccountNumber());
+            topic.publish(metadata.getAccountNumber());
+        });
+    }
+
+    void onInvalidation(String message) {
+        topic.receive(message);
+    }
+
+    private void evict(String accountNumber) {
+        log.debug("Evict account metadata : {}", accountNumber);
+        cache.evict(accountNumber);
+        missingAccounts.evict(accountNumber);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.account.service;
+
+import static com.example.account.type.ErrorCode.ACCOUNT_NUMBER_EXHAUSTED;
+
+import com.example.account.config.AccountNumberProperties;
+import com.example.account.exception.AccountException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * DB 시퀀스에서 계좌번호를 구간 단위로 예약해 두고 메모리에서 하나씩 나눠 준다.
+ * 서버가 재시작되면 남은 구간은 버려지므로 번호에 빈틈이 생길 수 있다.
+ * <p>
+ * 구간 예약은 별도 트랜잭션(REQUIRES_NEW)이므로 호출자의 트랜잭션 밖에서 불러야 하며,
+ * 예약하는 동안 락을 쥐지 않는다. 구간이 떨어진 순간 여러 스레드가 함께 예약하면 먼저 바꿔
+ * 끼운 구간을 이어서 쓰고, 나머지 구간은 다음에 쓰도록 남겨 둔다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+
+    /**
+     * 계좌번호는 10자리이다. (요청 DTO 의 @Size(min = 10, max = 10))
+     */
+    public static final long MAX_ACCOUNT_NUMBER = 9_999_999_999L;
+
+    private final AccountNumberSequenceService accountNumberSequenceService;
+    private final AccountNumberProperties accountNumberProperties;
+
+    private final AtomicReference<Block> current =
+        new AtomicReference<>(new Block(0L, 0));
+    private final Queue<Block> spareBlocks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean exhausted;
+
+    public String allocate() {
+        if (exhausted) {
+            // 더 예약해도 10자리를 넘는 번호뿐이다.
+            throw new AccountException(ACCOUNT_NUMBER_EXHAUSTED);
+        }
+        long value;
+        while (true) {
+            Block block = current.get();
+            value = block.take();
+            if (value >= 0) {
+                break;
+            }
+            Block next = spareBlocks.poll();
+            if (next == null) {
+                int blockSize = accountNumberProperties.getBlockSize();
+                next = new Block(
+                    accountNumberSequenceService.reserve(blockSize), blockSize);
+            }
+            if (!current.compareAndSet(block, next)) {
+                // 다른 스레드가 먼저 새 구간을 끼웠다.
+                spareBlocks.offer(next);
+            }
+        }
+
+        if (value > MAX_ACCOUNT_NUMBER) {
+            exhausted = true;
+            throw new AccountException(ACCOUNT_NUMBER_EXHAUSTED);
+        }
+        return String.valueOf(value);
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, int size) {
+            this.next = new AtomicLong(start);
+            this.end = start + size;
+        }
+
+        /**
+         * 다 썼으면 -1
+         */
+        private long take() {
+            long value = next.getAndIncrement();
+            return value < end ? value : -1L;
+        }
+    }
+}
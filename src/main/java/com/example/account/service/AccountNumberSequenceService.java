@@ -0,0 +1,41 @@
+package com.example.account.service;
+
+import com.example.account.config.AccountNumberProperties;
+import com.example.account.domain.AccountNumberSequence;
+import com.example.account.repository.AccountNumberSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class AccountNumberSequenceService {
+
+    public static final String ACCOUNT_NUMBER = "account_number";
+
+    private final AccountNumberSequenceRepository accountNumberSequenceRepository;
+    private final AccountNumberProperties accountNumberProperties;
+
+    /**
+     * 시퀀스 행을 잠그고 blockSize 만큼 번호를 예약한다. 계좌 생성 트랜잭션이 롤백되어도
+     * 예약은 되돌리지 않도록 별도 트랜잭션에서 커밋한다.
+     *
+     * @param blockSize
+     * @return 예약한 구간의 첫 번호
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(int blockSize) {
+        AccountNumberSequence sequence = accountNumberSequenceRepository
+            .findWithLockByName(ACCOUNT_NUMBER)
+            .orElseGet(() -> accountNumberSequenceRepository.save(
+                AccountNumberSequence.builder()
+                    .name(ACCOUNT_NUMBER)
+                    .nextValue(accountNumberProperties.getStart())
+                    .build()));
+
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        return start;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.account.service;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 계좌번호를 Redis pub/sub 으로 다른 서버에 알린다. 메시지는 "보낸 서버 id:계좌번호" 이며
+ * 이 서버가 보낸 메시지는 listener 에 넘기지 않는다. 서버 안의 캐시들이 각자의 주제로 하나씩 쓴다.
+ */
+@Slf4j
+class AccountNumberTopic {
+
+    private final String name;
+    private final RTopic topic;
+    private final Consumer<String> listener;
+    private final String nodeId = UUID.randomUUID().toString();
+    private int listenerId;
+
+    AccountNumberTopic(RedissonClient redissonClient, String name,
+        Consumer<String> listener) {
+        this.name = name;
+        this.topic = redissonClient.getTopic(name, StringCodec.INSTANCE);
+        this.listener = listener;
+    }
+
+    void subscribe() {
+        listenerId = topic.addListener(String.class,
+            (channel, message) -> receive(message));
+    }
+
+    void unsubscribe() {
+        topic.removeListener(listenerId);
+    }
+
+    void receive(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.startsWith(nodeId + ":")) {
+            return;
+        }
+        listener.accept(message.substring(separator + 1));
+    }
+
+    /**
+     * 보내지 못하면 기록만 한다. 다른 서버는 각 캐시의 만료 시간이 지나면 새 값을 읽는다.
+     */
+    void publish(String accountNumber) {
+        try {
+            topic.publish(nodeId + ":" + accountNumber);
+        } catch (Exception e) {
+            log.warn("Failed to publish to {} : {}", name, accountNumber, e);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 action 을 실행한다. 트랜잭션 밖이면 바로 실행한다.
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.account.service;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * PARTITIONED 모드에서 같은 계좌의 잔액 변경을 항상 같은 단일 스레드 파티션에서 순서대로 실행한다.
+ * 한 노드가 계좌의 유일한 writer 라는 전제에서 분산 락 없이 계좌별 직렬 실행을 보장한다.
+ */
+@Slf4j
+@Component
+public class AccountPartitionExecutor {
+
+    private final ThreadPoolExecutor[] partitions;
+
+    public AccountPartitionExecutor(BalanceProperties balanceProperties) {
+        BalanceProperties.Partition partition =
+            balanceProperties.getPartition();
+        partitions = new ThreadPoolExecutor[Math.max(1, partition.getCount())];
+        for (int i = 0; i < partitions.length; i++) {
+            String threadName = "account-partition-" + i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(partition.getQueueCapacity()),
+                runnable -> new Thread(runnable, threadName));
+        }
+    }
+
+    /**
+     * 락 대기와 같이, waitMillis 안에 파티션에서 실행이 시작되지 않으면 대기열에서 빼고
+     * ACCOUNT_TRANSACTION_LOCK 으로 실패한다. 이미 시작된 명령은 끝날 때까지 기다리고,
+     * 실패했다면 원래 예외를 그대로 던진다.
+     */
+    public <T> T execute(String accountNumber, BalanceCommand<T> command,
+        long waitMillis) throws Throwable {
+        ThreadPoolExecutor partition = partitionFor(accountNumber);
+        // 먼저 true 로 바꾼 쪽이 이긴다. 호출자가 먼저 바꾸면 명령은 실행되지 않는다.
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                future.complete(command.run());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        try {
+            partition.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.error("Partition queue is full for accountNumber : {}",
+                accountNumber);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+
+        try {
+            try {
+                return future.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (started.compareAndSet(false, true)) {
+                    partition.remove(task);
+                    log.error("Partition wait timed out for accountNumber : {}",
+                        accountNumber);
+                    throw new AccountException(
+                        ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ThreadPoolExecutor partitionFor(String accountNumber) {
+        return partitions[Math.floorMod(accountNumber.hashCode(),
+            partitions.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+    }
+}
@@ -7,90 +7,142 @@ import static com.example.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
 import static com.example.account.type.ErrorCode.BALANCE_NOT_EMPTY;
 import static com.example.account.type.ErrorCode.MAX_ACCOUNT_PER_USER_10;
 import static com.example.account.type.ErrorCode.USER_ACCOUNT_UN_MATCH;
-import static com.example.account.type.ErrorCode.USER_NOT_FOUND;
 
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceSlot;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
+import com.example.account.dto.AccountMetadata;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceSlotRepository;
 import com.example.account.repository.AccountRepository;
-import com.example.account.repository.AccountUserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
-import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
-    private final AccountUserRepository accountUserRepository;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final AccountBalanceReader accountBalanceReader;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AccountMetadataCache accountMetadataCache;
+    private final NegativeLookupCache negativeLookupCache;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 사용자가 있는지 조회 계좌의 번호를 생성하고 계좌를 저장하고, 그 정보를 넘긴다.
+     * 계좌번호는 트랜잭션을 열기 전에 받는다. 번호 구간 예약은 별도 트랜잭션이라 커넥션을 하나 더 쓰므로,
+     * 커넥션을 쥔 채 예약을 기다리면 풀이 바닥났을 때 서로를 기다리게 된다.
+     * 실패한 요청이 받은 번호는 버려진다.
      *
      * @param userId
      * @param initialBalance
      */
-    @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
-        AccountUser accountUser = getAccountUser(userId);
+        negativeLookupCache.checkUser(userId);
+        String newAccountNumber = accountNumberAllocator.allocate();
+
+        return transactionTemplate.execute(status -> {
+            AccountUser accountUser = negativeLookupCache.findUser(userId);
 
-        validateCreateAccount(accountUser);
+            validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-            .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1
-                + "")
-            .orElse("1000000000");
+            readYourWritesTracker.recordUserWrite(userId);
 
-        return AccountDto.fromEntity(
-            accountRepository.save(
+            Account account = accountRepository.save(
                 Account.builder()
                     .accountUser(accountUser)
                     .accountStatus(IN_USE)
                     .accountNumber(newAccountNumber)
                     .balance(initialBalance)
                     .registeredAt(LocalDateTime.now())
-                    .build()));
+                    .build());
+            accountMetadataCache.update(account);
+
+            return AccountDto.fromEntity(account);
+        });
     }
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
-        AccountUser accountUser = getAccountUser(userId);
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(
-                () -> new AccountException(ACCOUNT_NOT_FOUND));
+        AccountUser accountUser = negativeLookupCache.findUser(userId);
+        AccountMetadata metadata = negativeLookupCache.findAccount(
+            accountNumber);
+
+        validateDeleteAccount(accountUser, metadata);
 
-        validateDeleteAccount(accountUser, account);
+        Account account = getAccount(metadata);
+        validateBalanceEmpty(account);
 
         account.setAccountStatus(UNREGISTERED);
         account.setUnregisteredAt(LocalDateTime.now());
+        readYourWritesTracker.recordUserWrite(userId);
+        readYourWritesTracker.recordAccountWrite(accountNumber);
 
         accountRepository.save(account); // 테스트를 위해서 넣음. 좋은 코드는 아님.
+        accountMetadataCache.update(account);
 
         return AccountDto.fromEntity(account);
     }
 
-    @Transactional
-    public List<AccountDto> getAccountByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
+    /**
+     * 계좌 목록 조회용. 엔티티를 읽지 않고 응답 컬럼만 바로 읽는다. 사용자는 캐시에서 찾는다.
+     * 복제본이 있으면 복제본에서 읽되, 방금 계좌를 만들거나 해지한 사용자는 primary 에서 읽는다.
+     *
+     * @param userId
+     */
+    @Transactional(readOnly = true)
+    public List<AccountInfo> getAccountInfosByUserId(Long userId) {
+        readYourWritesTracker.pinIfUserWritten(userId);
+        negativeLookupCache.findUser(userId);
 
-        List<Account> accounts = accountRepository.findByAccountUser(
-            accountUser);
+        return accountRepository.findAccountInfosByUserId(userId);
+    }
 
-        return accounts.stream()
-            .map(AccountDto::fromEntity)
-            .collect(Collectors.toList());
+    /**
+     * 계좌 잔액을 칸으로 옮긴다. 이미 칸이 있으면 아무것도 하지 않는다.
+     * 호출자가 계좌 락을 쥐고 있어야 한다.
+     *
+     * @param accountNumber
+     * @param slotCount
+     */
+    @Transactional
+    public void splitBalanceIntoSlots(String accountNumber, int slotCount) {
+        Account account = getAccount(
+            negativeLookupCache.findAccount(accountNumber));
+        if (accountBalanceSlotRepository.existsByAccount(account)) {
+            return;
+        }
+
+        long share = account.getBalance() / slotCount;
+        long remainder = account.getBalance() % slotCount;
+        for (int slotNo = 0; slotNo < slotCount; slotNo++) {
+            accountBalanceSlotRepository.save(
+                AccountBalanceSlot.builder()
+                    .account(account)
+                    .slotNo(slotNo)
+                    .balance(slotNo == 0 ? share + remainder : share)
+                    .build());
+        }
+        account.setBalance(0L);
+        readYourWritesTracker.recordBalanceWrite(account);
     }
 
 
-    private AccountUser getAccountUser(Long userId) {
-        AccountUser accountUser = accountUserRepository.findById(userId)
-            .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
-        return accountUser;
+    /**
+     * 잔액이 필요할 때만 계좌 행을 읽는다.
+     */
+    private Account getAccount(AccountMetadata metadata) {
+        return accountRepository.findById(metadata.getId())
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
@@ -100,14 +152,23 @@ public class AccountService {
     }
 
     private void validateDeleteAccount(AccountUser accountUser,
-        Account account) {
-        if (!accountUser.getId().equals(account.getAccountUser().getId())) {
+        AccountMetadata metadata) {
+        if (!accountUser.getId().equals(metadata.getAccountUserId())) {
             throw new AccountException(USER_ACCOUNT_UN_MATCH);
         }
+        if (metadata.getAccountStatus() == UNREGISTERED) {
+            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    /**
+     * 캐시가 다른 서버의 해지를 아직 모를 수 있어, 읽은 계좌로 상태를 한 번 더 본다.
+     */
+    private void validateBalanceEmpty(Account account) {
         if (account.getAccountStatus() == UNREGISTERED) {
             throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
         }
-        if (account.getBalance() > 0) {
+        if (accountBalanceReader.totalBalance(account) > 0) {
             throw new AccountException(BALANCE_NOT_EMPTY);
         }
     }
@@ -0,0 +1,10 @@
+package com.example.account.service;
+
+/**
+ * 잔액 변경 요청 한 건. 실행 방식(재시도, 파티션 실행 등)이 감싸서 실행한다.
+ */
+@FunctionalInterface
+public interface BalanceCommand<T> {
+
+    T run() throws Throwable;
+}
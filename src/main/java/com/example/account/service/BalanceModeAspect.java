@@ -0,0 +1,60 @@
+package com.example.account.service;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.type.BalanceMode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 잔액 변경 방식에 따라 TransactionService 의 잔액 사용/취소 호출만 감싼다. 컨트롤러의 나머지
+ * 처리(대기, 실패 거래 저장 등)는 다시 실행되거나 파티션을 차지하지 않는다. 호출마다 새
+ * 트랜잭션이 열려야 하므로 {@code @Transactional} 보다 바깥에서 적용한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class BalanceModeAspect {
+
+    private final BalanceProperties balanceProperties;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final AccountPartitionExecutor accountPartitionExecutor;
+    private final LockPolicyResolver lockPolicyResolver;
+
+    @Around("execution(* com.example.account.service.TransactionService.useBalance(..))"
+        + " && args(*, accountNumber, *)")
+    public Object aroundUseBalance(ProceedingJoinPoint pjp,
+        String accountNumber) throws Throwable {
+        return execute(pjp, accountNumber, LockPolicyResolver.USE_POLICY);
+    }
+
+    @Around("execution(* com.example.account.service.TransactionService.cancelBalance(..))"
+        + " && args(*, accountNumber, *)")
+    public Object aroundCancelBalance(ProceedingJoinPoint pjp,
+        String accountNumber) throws Throwable {
+        return execute(pjp, accountNumber,
+            LockPolicyResolver.CANCEL_POLICY);
+    }
+
+    private Object execute(ProceedingJoinPoint pjp, String accountNumber,
+        String policy) throws Throwable {
+        BalanceMode mode = balanceProperties.getMode();
+        if (mode == BalanceMode.OPTIMISTIC) {
+            // 버전 충돌 시 트랜잭션만 다시 실행한다.
+            return optimisticRetryExecutor.execute(accountNumber,
+                pjp::proceed);
+        }
+        if (mode == BalanceMode.PARTITIONED) {
+            // 계좌별 단일 스레드 파티션에서 순서대로 실행한다. 락 대기 시간만큼만 차례를 기다린다.
+            return accountPartitionExecutor.execute(accountNumber,
+                pjp::proceed,
+                lockPolicyResolver.resolve(policy).getWaitMillis());
+        }
+        return pjp.proceed();
+    }
+}
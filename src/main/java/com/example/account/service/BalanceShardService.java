@@ -0,0 +1,139 @@
+package com.example.account.service;
+
+import static com.example.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.BalanceProperties;
+import com.example.account.domain.AccountBalanceSlot;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceSlotRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 쓰기가 몰리는 계좌의 잔액을 여러 칸으로 나누고 칸마다 따로 락을 잡아 동시에 처리한다.
+ * 차감은 잔액이 충분한 칸 하나를 골라 처리하고, 어느 한 칸으로도 모자라면 모든 칸의 락을
+ * 칸 번호 순서대로 잡은 뒤 여러 칸에서 나눠 차감한다. 취소 금액은 임의의 칸에 되돌린다.
+ * 칸 락과 칸을 나눌 때의 계좌 락은 계좌 락과 같이 사용/취소 정책으로 잡는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceShardService {
+
+    private final AccountBalanceReader accountBalanceReader;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final LockPolicyResolver lockPolicyResolver;
+    private final BalanceProperties balanceProperties;
+
+    public boolean isSharded(String accountNumber) {
+        return accountBalanceReader.isSharded(accountNumber);
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber,
+        Long amount) {
+        LockPolicy policy = lockPolicyResolver.resolve(
+            LockPolicyResolver.USE_POLICY);
+        List<AccountBalanceSlot> slots = getSlots(accountNumber, policy);
+
+        List<Integer> candidates = slots.stream()
+            .filter(slot -> slot.getBalance() >= amount)
+            .map(AccountBalanceSlot::getSlotNo)
+            .collect(Collectors.toList());
+        if (!candidates.isEmpty()) {
+            Integer slotNo = candidates.get(
+                ThreadLocalRandom.current().nextInt(candidates.size()));
+            try {
+                return useSlots(userId, accountNumber, List.of(slotNo),
+                    amount, policy);
+            } catch (AccountException e) {
+                if (e.getErrorCode() != AMOUNT_EXCEED_BALANCE) {
+                    throw e;
+                }
+                // 락을 잡기 전에 다른 요청이 먼저 칸을 비웠다.
+                log.debug("Slot {} drained, sweeping accountNumber : {}",
+                    slotNo, accountNumber);
+            }
+        }
+
+        List<Integer> slotNos = slots.stream()
+            .map(AccountBalanceSlot::getSlotNo)
+            .collect(Collectors.toList());
+        return useSlots(userId, accountNumber, slotNos, amount, policy);
+    }
+
+    public TransactionDto cancelBalance(String transactionId,
+        String accountNumber, Long amount) {
+        LockPolicy policy = lockPolicyResolver.resolve(
+            LockPolicyResolver.CANCEL_POLICY);
+        List<AccountBalanceSlot> slots = getSlots(accountNumber, policy);
+        Integer slotNo = slots.get(
+            ThreadLocalRandom.current().nextInt(slots.size())).getSlotNo();
+
+        String lockKey = getSlotLockKey(accountNumber, slotNo);
+        lockService.lock(lockKey, policy);
+        try {
+            return transactionService.cancelSlotBalance(transactionId,
+                accountNumber, slotNo, amount);
+        } finally {
+            lockService.unlock(lockKey, policy);
+        }
+    }
+
+    /**
+     * 칸 번호 오름차순으로 락을 잡아 여러 칸을 잡는 요청끼리 교착되지 않게 한다.
+     */
+    private TransactionDto useSlots(Long userId, String accountNumber,
+        List<Integer> slotNos, Long amount, LockPolicy policy) {
+        List<String> lockedKeys = new ArrayList<>();
+        try {
+            for (Integer slotNo : slotNos) {
+                String lockKey = getSlotLockKey(accountNumber, slotNo);
+                lockService.lock(lockKey, policy);
+                lockedKeys.add(lockKey);
+            }
+            return transactionService.useSlotBalance(userId, accountNumber,
+                slotNos, amount);
+        } finally {
+            for (int i = lockedKeys.size() - 1; i >= 0; i--) {
+                lockService.unlock(lockedKeys.get(i), policy);
+            }
+        }
+    }
+
+    /**
+     * 처음 쓰는 계좌라면 계좌 락을 잡고 잔액을 칸으로 옮긴 뒤 칸 목록을 돌려준다.
+     */
+    private List<AccountBalanceSlot> getSlots(String accountNumber,
+        LockPolicy policy) {
+        List<AccountBalanceSlot> slots = accountBalanceSlotRepository
+            .findByAccountAccountNumberOrderBySlotNo(accountNumber);
+        if (!slots.isEmpty()) {
+            return slots;
+        }
+
+        lockService.lock(accountNumber, policy);
+        try {
+            accountService.splitBalanceIntoSlots(accountNumber,
+                balanceProperties.getShard().getSlots());
+        } finally {
+            lockService.unlock(accountNumber, policy);
+        }
+        return accountBalanceSlotRepository
+            .findByAccountAccountNumberOrderBySlotNo(accountNumber);
+    }
+
+    private static String getSlotLockKey(String accountNumber,
+        Integer slotNo) {
+        return accountNumber + ":" + slotNo;
+    }
+}
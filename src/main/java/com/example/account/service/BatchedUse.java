@@ -0,0 +1,42 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.Getter;
+
+/**
+ * 배치로 묶인 잔액 사용 요청 한 건과 그 결과
+ */
+@Getter
+public class BatchedUse {
+
+    private final Long userId;
+    private final Long amount;
+
+    private TransactionDto result;
+    private RuntimeException failure;
+
+    public BatchedUse(Long userId, Long amount) {
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    public void succeed(TransactionDto result) {
+        this.result = result;
+    }
+
+    public void fail(RuntimeException failure) {
+        this.failure = failure;
+    }
+
+    public TransactionDto getResultOrThrow() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (result == null) {
+            throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+        return result;
+    }
+}
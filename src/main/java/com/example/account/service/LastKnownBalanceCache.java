@@ -0,0 +1,98 @@
+package com.example.account.service;
+
+import com.example.account.config.PreLockValidationProperties;
+import com.example.account.domain.Account;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.OptionalLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Service;
+
+/**
+ * 이 서버에서 커밋된 거래의 계좌 잔액을 계좌번호별로 기억한다. 락 없이 읽는 값이므로
+ * 실제 잔액보다 크면 괜찮지만(락 안에서 다시 검사한다) 작으면 안 된다.
+ * 잔액은 사용으로만 줄어들므로, 잔액을 늘리는 취소는 Redis pub/sub 으로 다른 서버에 알려
+ * 각자 기억한 값을 버리게 한다. 커밋 후에만 알리면 커밋과 전달 사이에 다른 서버가 옛 잔액으로
+ * 거절하므로, 잔액을 늘리기 전에 한 번 더 알린다. 같은 계좌의 커밋 순서가 뒤바뀌어도
+ * Account.version 이 큰 값을 남긴다.
+ */
+@Service
+public class LastKnownBalanceCache {
+
+    static final String RAISED_TOPIC = "account-balance-raised";
+
+    private final Cache<String, Snapshot> cache;
+    private final AccountNumberTopic topic;
+
+    public LastKnownBalanceCache(PreLockValidationProperties properties,
+        RedissonClient redissonClient) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxAccounts())
+            .expireAfterWrite(properties.getBalanceTtl())
+            .build();
+        this.topic = new AccountNumberTopic(redissonClient, RAISED_TOPIC,
+            cache::invalidate);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        topic.subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        topic.unsubscribe();
+    }
+
+    public OptionalLong get(String accountNumber) {
+        Snapshot snapshot = cache.getIfPresent(accountNumber);
+        return snapshot == null ? OptionalLong.empty()
+            : OptionalLong.of(snapshot.balance);
+    }
+
+    /**
+     * 잔액을 늘리기 전에 부른다. 롤백되어도 다른 서버가 기억한 값을 한 번 잃을 뿐이다.
+     */
+    public void beforeRaise(String accountNumber) {
+        cache.invalidate(accountNumber);
+        topic.publish(accountNumber);
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 account 의 잔액을 기억한다. raised 이면 다른 서버에도 알린다.
+     */
+    public void updateAfterCommit(Account account, boolean raised) {
+        AccountNumberTopic.afterCommit(() -> {
+            update(account);
+            if (raised) {
+                topic.publish(account.getAccountNumber());
+            }
+        });
+    }
+
+    void update(Account account) {
+        Snapshot snapshot = new Snapshot(
+            account.getVersion() == null ? -1L : account.getVersion(),
+            account.getBalance());
+        cache.asMap().merge(account.getAccountNumber(), snapshot,
+            (previous, next) -> next.version >= previous.version
+                ? next : previous);
+    }
+
+    void onRaised(String message) {
+        topic.receive(message);
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final long balance;
+
+        private Snapshot(long version, long balance) {
+            this.version = version;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.account.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis 락을 쓸 수 없을 때 계좌번호 해시로 나눈 JVM 내부 락으로 같은 서버 안의 요청만이라도
+ * 줄 세운다. 한 스레드가 같은 stripe 에 걸리는 여러 키(잔액 칸)를 함께 잡을 수 있도록 재진입
+ * 락을 쓰고, 어느 키를 이 락으로 잡았는지 스레드별로 기억해 unlock 때 Redis 락과 구분한다.
+ */
+class LocalFallbackLocks {
+
+    private final ReentrantLock[] locks;
+    private final ThreadLocal<Map<String, Integer>> heldKeys =
+        ThreadLocal.withInitial(HashMap::new);
+
+    LocalFallbackLocks(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    boolean tryLock(String key, long waitMillis) throws InterruptedException {
+        if (!lockFor(key).tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        heldKeys.get().merge(key, 1, Integer::sum);
+        return true;
+    }
+
+    /**
+     * 현재 스레드가 이 락으로 잡은 키이면 풀고 true, 아니면 아무것도 하지 않고 false
+     */
+    boolean unlockIfHeld(String key) {
+        Map<String, Integer> keys = heldKeys.get();
+        Integer count = keys.get(key);
+        if (count != null) {
+            if (count == 1) {
+                keys.remove(key);
+            } else {
+                keys.put(key, count - 1);
+            }
+            lockFor(key).unlock();
+        }
+        if (keys.isEmpty()) {
+            heldKeys.remove();
+        }
+        return count != null;
+    }
+
+    private ReentrantLock lockFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return locks[hash & (locks.length - 1)];
+    }
+}
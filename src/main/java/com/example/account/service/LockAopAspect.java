@@ -1,6 +1,11 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.BalanceProperties;
+import com.example.account.dto.UseBalance;
+import com.example.account.type.BalanceMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -15,20 +20,47 @@ import org.springframework.stereotype.Component;
 public class LockAopAspect {
 
     private final LockService lockService;
+    private final LockPolicyResolver lockPolicyResolver;
+    private final BalanceProperties balanceProperties;
+    private final AccountBalanceReader accountBalanceReader;
+    private final PreLockValidator preLockValidator;
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
         ProceedingJoinPoint pjp,
+        AccountLock accountLock,
         AccountLockIdInterface request
     ) throws Throwable {
+        // 어차피 실패할 요청은 락 대기열에 세우지 않고 바로 거절한다.
+        preLockValidator.validate(request);
+
+        if (accountBalanceReader.isSharded(request.getAccountNumber())) {
+            // 잔액이 칸으로 나뉜 계좌는 칸별 락을 잡으므로 계좌 락을 잡지 않는다.
+            return pjp.proceed();
+        }
+
+        BalanceMode mode = balanceProperties.getMode();
+        if (mode == BalanceMode.BATCHED
+            && request instanceof UseBalance.Request) {
+            // 배치 리더가 배치 단위로 계좌 락을 잡는다.
+            return pjp.proceed();
+        }
+        if (!mode.isDistributedLockRequired()) {
+            // 잔액 변경 방식이 스스로 동시성을 보장하므로 락 없이 진행한다.
+            // (OPTIMISTIC 재시도, PARTITIONED 파티션 실행은 BalanceModeAspect 가 서비스 호출에만 건다)
+            return pjp.proceed();
+        }
+
+        LockPolicy policy = lockPolicyResolver.resolve(accountLock);
+
         // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        lockService.lock(request.getAccountNumber(), policy);
 
         try {
             return pjp.proceed();
         } finally {
             // lock 해제
-            lockService.unlock(request.getAccountNumber());
+            lockService.unlock(request.getAccountNumber(), policy);
         }
     }
 }
@@ -0,0 +1,107 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.LockProperties;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link AccountLock} 속성에 application.yml 의 account.lock.policies 덮어쓰기 값을 적용해 락 정책을 만든다.
+ */
+@Slf4j
+@Component
+public class LockPolicyResolver {
+
+    /**
+     * 잔액 사용/취소 엔드포인트의 {@code @AccountLock(policy = ...)} 이름
+     */
+    public static final String USE_POLICY = "use";
+    public static final String CANCEL_POLICY = "cancel";
+
+    private static final String POLICIES_PREFIX = "account.lock.policies";
+
+    private final Environment environment;
+    private final Map<AccountLock, LockPolicy> resolved =
+        new ConcurrentHashMap<>();
+    private final Map<String, LockPolicy> resolvedByName =
+        new ConcurrentHashMap<>();
+
+    private volatile Map<String, LockProperties.Policy> overrides;
+
+    public LockPolicyResolver(LockProperties lockProperties,
+        Environment environment) {
+        this.environment = environment;
+        this.overrides = new HashMap<>(lockProperties.getPolicies());
+    }
+
+    public LockPolicy resolve(AccountLock accountLock) {
+        return resolved.computeIfAbsent(accountLock, this::build);
+    }
+
+    /**
+     * {@link AccountLock} 없이 정책 이름만으로 찾는다. 덮어쓰기 값이 없는 항목은
+     * {@link LockPolicy#DEFAULT} 를 따른다.
+     */
+    public LockPolicy resolve(String policy) {
+        return resolvedByName.computeIfAbsent(policy, this::build);
+    }
+
+    public Map<String, LockProperties.Policy> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * 현재 Environment 에서 덮어쓰기 값을 다시 바인딩하고, 계산해 둔 정책을 버린다.
+     */
+    public void reload() {
+        overrides = Binder.get(environment)
+            .bind(POLICIES_PREFIX,
+                Bindable.mapOf(String.class, LockProperties.Policy.class))
+            .orElseGet(HashMap::new);
+        resolved.clear();
+        resolvedByName.clear();
+        log.info("Reloaded lock policies : {}", overrides.keySet());
+    }
+
+    private LockPolicy build(AccountLock accountLock) {
+        return build(accountLock.policy(), LockPolicy.builder()
+            .waitMillis(accountLock.tryLockTime())
+            .leaseMillis(accountLock.leaseTime())
+            .fair(accountLock.fair())
+            .watchdog(accountLock.watchdog())
+            .build());
+    }
+
+    private LockPolicy build(String policy) {
+        return build(policy, LockPolicy.DEFAULT);
+    }
+
+    private LockPolicy build(String policy, LockPolicy defaults) {
+        LockProperties.Policy override = overrides.get(policy);
+        if (override == null) {
+            return defaults;
+        }
+
+        return LockPolicy.builder()
+            .waitMillis(override.getWaitTime() != null
+                ? override.getWaitTime().toMillis()
+                : defaults.getWaitMillis())
+            .leaseMillis(override.getLeaseTime() != null
+                ? override.getLeaseTime().toMillis()
+                : defaults.getLeaseMillis())
+            .fair(override.getFair() != null
+                ? override.getFair()
+                : defaults.isFair())
+            .watchdog(override.getWatchdog() != null
+                ? override.getWatchdog()
+                : defaults.isWatchdog())
+            .build();
+    }
+}
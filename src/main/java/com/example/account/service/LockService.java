@@ -1,41 +1,285 @@
 package com.example.account.service;
 
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.LockProperties;
 import com.example.account.exception.AccountException;
+import com.example.account.service.AccountLockStripes.Stripe;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.concurrent.TimeUnit;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LockService {
 
     private final RedissonClient redissonClient;
+    private final AccountLockStripes accountLockStripes;
+    private final LockProperties lockProperties;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final LocalFallbackLocks localFallbackLocks;
+
+    private final Timer localWaitTimer;
+    private final Timer redisWaitTimer;
+    private final Counter handoffCounter;
+    private final Counter fallbackCounter;
+
+    public LockService(RedissonClient redissonClient,
+        AccountLockStripes accountLockStripes,
+        LockProperties lockProperties,
+        RedisCircuitBreaker redisCircuitBreaker,
+        MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.accountLockStripes = accountLockStripes;
+        this.lockProperties = lockProperties;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.localFallbackLocks = new LocalFallbackLocks(
+            lockProperties.getLocalStripes());
+        this.localWaitTimer = Timer.builder("account.lock.wait")
+            .tag("tier", "local")
+            .register(meterRegistry);
+        this.redisWaitTimer = Timer.builder("account.lock.wait")
+            .tag("tier", "redis")
+            .register(meterRegistry);
+        this.handoffCounter = Counter.builder("account.lock.handoff")
+            .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("account.lock.fallback")
+            .description("Locks taken only inside this node because redis "
+                + "was unavailable")
+            .register(meterRegistry);
+    }
 
     public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
-        log.debug("Trying lock for accountNumber : {}", accountNumber);
+        lock(accountNumber, LockPolicy.DEFAULT);
+    }
+
+    public void lock(String accountNumber, LockPolicy policy) {
+        if (lockProperties.getMode() == LockMode.TWO_TIER) {
+            lockTwoTier(accountNumber, policy);
+            return;
+        }
+        if (!redisCircuitBreaker.allowRequest()) {
+            lockLocally(accountNumber, policy.getWaitMillis());
+            return;
+        }
+
+        RLock lock = getLock(accountNumber, policy);
+        log.debug("Trying lock for accountNumber : {}, policy : {}",
+            accountNumber, policy);
+
+        long startedAt = System.nanoTime();
+        boolean isLock;
+        try {
+            isLock = lock.tryLock(policy.getWaitMillis(),
+                policy.getRedisLeaseMillis(), TimeUnit.MILLISECONDS);
+            redisCircuitBreaker.onSuccess();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (RedisException e) {
+            // 락 없이 진행하지 않고, 남은 대기 시간 안에서 서버 안의 락으로 대신한다.
+            log.error("Redis lock failed, falling back to local lock", e);
+            redisCircuitBreaker.onFailure();
+            lockLocally(accountNumber, remainingMillis(policy, startedAt));
+            return;
+        } finally {
+            redisWaitTimer.record(System.nanoTime() - startedAt,
+                TimeUnit.NANOSECONDS);
+        }
+        if (!isLock) {
+            log.error("==========Lock acquisition failed===========");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    /**
+     * Redis 를 쓸 수 없는 동안 같은 서버의 요청끼리만 막는다. 다른 서버와의 동시 변경은
+     * Account 의 @Version 검사가 마지막으로 막는다.
+     */
+    private void lockLocally(String accountNumber, long waitMillis) {
+        fallbackCounter.increment();
+        long startedAt = System.nanoTime();
+        boolean isLocalLock;
+        try {
+            isLocalLock = localFallbackLocks.tryLock(accountNumber, waitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } finally {
+            localWaitTimer.record(System.nanoTime() - startedAt,
+                TimeUnit.NANOSECONDS);
+        }
+        if (!isLocalLock) {
+            log.error("==========Local lock acquisition failed===========");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    public void unlock(String accountNumber) {
+        unlock(accountNumber, LockPolicy.DEFAULT);
+    }
+
+    public void unlock(String accountNumber, LockPolicy policy) {
+        if (lockProperties.getMode() == LockMode.TWO_TIER) {
+            unlockTwoTier(accountNumber);
+            return;
+        }
+
+        log.error("Unlock for accountNumber : {}", accountNumber);
+        if (localFallbackLocks.unlockIfHeld(accountNumber)) {
+            return;
+        }
+
+        RLock lock = getLock(accountNumber, policy);
+        if (redisCircuitBreaker.isOpen()) {
+            // 응답을 기다리지 않는다. 풀리지 않으면 lease(또는 watchdog 이 멈춘 뒤 30초)가 지나 풀린다.
+            lock.unlockAsync();
+            return;
+        }
+        try {
+            lock.unlock();
+            redisCircuitBreaker.onSuccess();
+        } catch (RedisException e) {
+            log.error("Redis unlock failed", e);
+            redisCircuitBreaker.onFailure();
+        }
+    }
+
+    private void lockTwoTier(String accountNumber, LockPolicy policy) {
+        Stripe stripe = accountLockStripes.stripeFor(accountNumber);
+        log.debug("Trying local lock for accountNumber : {}", accountNumber);
 
+        long startedAt = System.nanoTime();
+        boolean isLocalLock;
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            isLocalLock = stripe.tryLock(
+                TimeUnit.MILLISECONDS.toNanos(policy.getWaitMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } finally {
+            localWaitTimer.record(System.nanoTime() - startedAt,
+                TimeUnit.NANOSECONDS);
+        }
+        if (!isLocalLock) {
+            log.error("==========Local lock acquisition failed===========");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+
+        if (stripe.holdsRemote(accountNumber)) {
+            // 앞선 소유자가 넘겨준 Redis 락을 그대로 사용한다.
+            handoffCounter.increment();
+            return;
+        }
+
+        try {
+            releaseRemote(stripe);
+            acquireRemote(stripe, accountNumber, policy,
+                remainingMillis(policy, startedAt));
+        } catch (RuntimeException e) {
+            stripe.unlock();
+            throw e;
+        }
+    }
+
+    private void acquireRemote(Stripe stripe, String accountNumber,
+        LockPolicy policy, long waitMillis) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            // stripe 락만으로 같은 서버의 요청을 막는다.
+            fallbackCounter.increment();
+            return;
+        }
+        RLock lock = getLock(accountNumber, policy);
+        log.debug("Trying lock for accountNumber : {}, policy : {}",
+            accountNumber, policy);
+
+        long startedAt = System.nanoTime();
+        try {
+            boolean isLock = lock.tryLockAsync(waitMillis,
+                policy.getRedisLeaseMillis(), TimeUnit.MILLISECONDS,
+                stripe.getOwnerId()).get();
+            redisCircuitBreaker.onSuccess();
             if (!isLock) {
                 log.error("==========Lock acquisition failed===========");
                 throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
+            stripe.remoteAcquired(accountNumber, lock,
+                TimeUnit.MILLISECONDS.toNanos(policy.getRedisLeaseMillis()));
         } catch (AccountException e) {
             throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Redis lock interrupted", e);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         } catch (Exception e) {
-            log.error("Redis lock failed", e);
+            log.error("Redis lock failed, falling back to local lock", e);
+            redisCircuitBreaker.onFailure();
+            fallbackCounter.increment();
+        } finally {
+            redisWaitTimer.record(System.nanoTime() - startedAt,
+                TimeUnit.NANOSECONDS);
         }
     }
 
-    public void unlock(String accountNumber) {
-        log.error("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+    private void unlockTwoTier(String accountNumber) {
+        Stripe stripe = accountLockStripes.stripeFor(accountNumber);
+        if (stripe.handOff(lockProperties.getMaxHandoffs())) {
+            log.debug("Handed off lock for accountNumber : {}", accountNumber);
+            return;
+        }
+
+        try {
+            releaseRemote(stripe);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void releaseRemote(Stripe stripe) {
+        String heldAccountNumber = stripe.getRemoteAccountNumber();
+        RLock heldLock = stripe.getRemoteLock();
+        if (heldAccountNumber == null) {
+            return;
+        }
+        stripe.remoteReleased();
+
+        log.debug("Unlock for accountNumber : {}", heldAccountNumber);
+        if (redisCircuitBreaker.isOpen()) {
+            heldLock.unlockAsync(stripe.getOwnerId());
+            return;
+        }
+        try {
+            heldLock.unlockAsync(stripe.getOwnerId()).get();
+            redisCircuitBreaker.onSuccess();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Redis unlock interrupted", e);
+        } catch (Exception e) {
+            log.error("Redis unlock failed", e);
+            // lease 가 지나 이미 풀린 락(IllegalMonitorStateException)은 Redis 가 응답한 것이다.
+            if (e.getCause() instanceof RedisException) {
+                redisCircuitBreaker.onFailure();
+            }
+        }
+    }
+
+    private static long remainingMillis(LockPolicy policy, long startedAt) {
+        return Math.max(0, policy.getWaitMillis()
+            - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private RLock getLock(String accountNumber, LockPolicy policy) {
+        String lockKey = getLockKey(accountNumber);
+        return policy.isFair()
+            ? redissonClient.getFairLock(lockKey)
+            : redissonClient.getLock(lockKey);
     }
 
     private static String getLockKey(String accountNumber) {
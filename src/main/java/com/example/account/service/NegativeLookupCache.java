@@ -0,0 +1,120 @@
+package com.example.account.service;
+
+import static com.example.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.account.type.ErrorCode.USER_NOT_FOUND;
+
+import com.example.account.config.CacheConfig;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * DB 에서 찾지 못한 사용자 id, 계좌번호를 account.negative-cache.ttl 동안 기억해 같은 키로
+ * 다시 들어온 요청은 DB 를 읽지 않고 USER_NOT_FOUND / ACCOUNT_NOT_FOUND 로 거절한다.
+ * 사용자를 저장하면 AccountUserRepository 가, 계좌를 만들면 AccountMetadataCache 가 키를 뺀다.
+ * 서비스들은 사용자와 계좌를 findUser / findAccount 로 찾는다. 거절은 요청 입구에서 한 번만 센다.
+ */
+@Service
+public class NegativeLookupCache {
+
+    private final AccountUserRepository accountUserRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final Cache missingUsers;
+    private final Cache missingAccounts;
+    private final Counter userRejectedCounter;
+    private final Counter accountRejectedCounter;
+
+    public NegativeLookupCache(CacheManager cacheManager,
+        MeterRegistry meterRegistry,
+        AccountUserRepository accountUserRepository,
+        AccountMetadataCache accountMetadataCache) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountMetadataCache = accountMetadataCache;
+        this.missingUsers = cacheManager.getCache(
+            CacheConfig.MISSING_ACCOUNT_USER);
+        this.missingAccounts = cacheManager.getCache(
+            CacheConfig.MISSING_ACCOUNT);
+        this.userRejectedCounter = rejectedCounter(meterRegistry, "user");
+        this.accountRejectedCounter = rejectedCounter(meterRegistry,
+            "account");
+    }
+
+    /**
+     * 최근에 없던 사용자이면 DB 를 읽지 않고 거절한다.
+     */
+    public AccountUser findUser(Long userId) {
+        checkUser(userId);
+        return accountUserRepository.findById(userId)
+            .orElseThrow(() -> userNotFound(userId));
+    }
+
+    /**
+     * 최근에 없던 계좌이면 DB 를 읽지 않고 거절한다. 소유자와 상태 확인은 이 메타데이터로 충분하다.
+     */
+    public AccountMetadata findAccount(String accountNumber) {
+        checkAccount(accountNumber);
+        return accountMetadataCache.get(accountNumber)
+            .orElseThrow(() -> accountNotFound(accountNumber));
+    }
+
+    /**
+     * 실패 거래 기록용. findAccount 와 같지만 입구에서 이미 센 거절을 다시 세지 않는다.
+     */
+    public AccountMetadata findAccountUncounted(String accountNumber) {
+        if (missingAccounts.get(accountNumber) != null) {
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
+        return accountMetadataCache.get(accountNumber)
+            .orElseThrow(() -> accountNotFound(accountNumber));
+    }
+
+    /**
+     * 최근에 없던 사용자이면 USER_NOT_FOUND 를 던진다.
+     */
+    public void checkUser(Long userId) {
+        if (missingUsers.get(userId) != null) {
+            userRejectedCounter.increment();
+            throw new AccountException(USER_NOT_FOUND);
+        }
+    }
+
+    /**
+     * 최근에 없던 계좌이면 ACCOUNT_NOT_FOUND 를 던진다.
+     */
+    public void checkAccount(String accountNumber) {
+        if (missingAccounts.get(accountNumber) != null) {
+            accountRejectedCounter.increment();
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * DB 에 없던 사용자를 기억하고 던질 예외를 돌려준다.
+     */
+    public AccountException userNotFound(Long userId) {
+        missingUsers.put(userId, Boolean.TRUE);
+        return new AccountException(USER_NOT_FOUND);
+    }
+
+    /**
+     * DB 에 없던 계좌를 기억하고 던질 예외를 돌려준다.
+     */
+    public AccountException accountNotFound(String accountNumber) {
+        missingAccounts.put(accountNumber, Boolean.TRUE);
+        return new AccountException(ACCOUNT_NOT_FOUND);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry,
+        String key) {
+        return Counter.builder("account.negative-cache.rejected")
+            .tag("key", key)
+            .description("Lookups rejected from the negative cache")
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.account.service;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * OPTIMISTIC 모드에서 버전 충돌로 실패한 잔액 변경을 jitter 를 준 지수 backoff 로 다시 시도한다.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final BalanceProperties balanceProperties;
+
+    private final Counter retryCounter;
+    private final Counter giveUpCounter;
+    private final DistributionSummary attemptsSummary;
+
+    public OptimisticRetryExecutor(BalanceProperties balanceProperties,
+        MeterRegistry meterRegistry) {
+        this.balanceProperties = balanceProperties;
+        this.retryCounter = Counter.builder("account.balance.optimistic.retry")
+            .register(meterRegistry);
+        this.giveUpCounter = Counter.builder("account.balance.optimistic.giveup")
+            .register(meterRegistry);
+        this.attemptsSummary = DistributionSummary.builder(
+                "account.balance.optimistic.attempts")
+            .register(meterRegistry);
+    }
+
+    public <T> T execute(String accountNumber, BalanceCommand<T> command)
+        throws Throwable {
+        BalanceProperties.Optimistic optimistic =
+            balanceProperties.getOptimistic();
+        int maxAttempts = Math.max(1, optimistic.getMaxAttempts());
+
+        for (int attemptCount = 1; ; attemptCount++) {
+            try {
+                T result = command.run();
+                attemptsSummary.record(attemptCount);
+                return result;
+            } catch (OptimisticLockingFailureException
+                     | OptimisticLockException e) {
+                if (attemptCount >= maxAttempts) {
+                    giveUpCounter.increment();
+                    attemptsSummary.record(attemptCount);
+                    // 자주 보이는 계좌는 LOCKED 모드로 돌려야 할 후보다.
+                    log.warn("Optimistic retry exhausted for accountNumber : {}",
+                        accountNumber);
+                    throw new AccountException(
+                        ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                retryCounter.increment();
+                backoff(optimistic, attemptCount);
+            }
+        }
+    }
+
+    private void backoff(BalanceProperties.Optimistic optimistic,
+        int attemptCount) throws InterruptedException {
+        long base = optimistic.getBackoffBase().toMillis();
+        long max = optimistic.getBackoffMax().toMillis();
+        long ceiling = Math.min(max, base << Math.min(attemptCount - 1, 20));
+        // full jitter: 0 ~ ceiling 사이에서 고르게 기다려 재시도 시점을 흩뜨린다.
+        Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
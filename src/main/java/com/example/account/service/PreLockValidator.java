@@ -0,0 +1,101 @@
+package com.example.account.service;
+
+import static com.example.account.type.AccountStatus.UNREGISTERED;
+import static com.example.account.type.ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+import static com.example.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.account.type.ErrorCode.TRANSACTION_NOT_FOUND;
+import static com.example.account.type.ErrorCode.USER_ACCOUNT_UN_MATCH;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.config.PreLockValidationProperties;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.OptionalLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 계좌 락을 잡기 전에 캐시된 값만으로 어차피 실패할 요청을 거른다. 통과한 요청은 락 안에서
+ * 서비스가 다시 검사하므로, 여기서는 확실히 실패하는 경우만 같은 ErrorCode 로 거절한다.
+ * 거절할 때는 컨트롤러가 실패를 처리할 때와 같이 실패 거래를 남긴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PreLockValidator {
+
+    private final PreLockValidationProperties properties;
+    private final NegativeLookupCache negativeLookupCache;
+    private final LastKnownBalanceCache lastKnownBalanceCache;
+    private final TransactionIdFilter transactionIdFilter;
+    private final AccountBalanceReader accountBalanceReader;
+    private final TransactionService transactionService;
+    private final MeterRegistry meterRegistry;
+
+    public void validate(AccountLockIdInterface request) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (request instanceof UseBalance.Request) {
+            validateUse((UseBalance.Request) request);
+        } else if (request instanceof CancelBalance.Request) {
+            validateCancel((CancelBalance.Request) request);
+        }
+    }
+
+    /**
+     * TransactionService.useBalance 와 같은 순서로 검사한다.
+     */
+    private void validateUse(UseBalance.Request request) {
+        try {
+            negativeLookupCache.findUser(request.getUserId());
+            AccountMetadata account = negativeLookupCache.findAccount(
+                request.getAccountNumber());
+
+            if (!request.getUserId().equals(account.getAccountUserId())) {
+                throw new AccountException(USER_ACCOUNT_UN_MATCH);
+            }
+            if (account.getAccountStatus() == UNREGISTERED) {
+                throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+            }
+            // 칸으로 나뉜 계좌는 Account.balance 가 전체 잔액이 아니다.
+            if (!accountBalanceReader.isSharded(request.getAccountNumber())) {
+                OptionalLong balance = lastKnownBalanceCache.get(
+                    request.getAccountNumber());
+                if (balance.isPresent()
+                    && request.getAmount() > balance.getAsLong()) {
+                    throw new AccountException(AMOUNT_EXCEED_BALANCE);
+                }
+            }
+        } catch (AccountException e) {
+            count(e);
+            transactionService.saveFailedUseTransaction(
+                request.getAccountNumber(), request.getAmount());
+            throw e;
+        }
+    }
+
+    /**
+     * 거래 검사는 거래 ID 필터로만 하고, 나머지는 락 안에서 거래를 읽은 뒤 검사한다.
+     */
+    private void validateCancel(CancelBalance.Request request) {
+        try {
+            if (!transactionIdFilter.mightExist(request.getTransactionId())) {
+                throw new AccountException(TRANSACTION_NOT_FOUND);
+            }
+            negativeLookupCache.findAccount(request.getAccountNumber());
+        } catch (AccountException e) {
+            count(e);
+            transactionService.saveFailedCancelTransaction(
+                request.getAccountNumber(), request.getAmount());
+            throw e;
+        }
+    }
+
+    private void count(AccountException e) {
+        meterRegistry.counter("account.lock.prevalidation.rejected",
+            "code", e.getErrorCode().name()).increment();
+    }
+}
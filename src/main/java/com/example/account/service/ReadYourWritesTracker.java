@@ -0,0 +1,113 @@
+package com.example.account.service;
+
+import com.example.account.config.ReplicaProperties;
+import com.example.account.domain.Account;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 사용자/계좌별 마지막 쓰기 커밋 시각을 기억했다가, stickiness 안에 같은 사용자/계좌를 읽는
+ * 읽기 전용 트랜잭션은 복제본 대신 primary 를 쓰게 한다. (read-your-writes)
+ */
+@Service
+public class ReadYourWritesTracker {
+
+    private final ReplicaProperties replicaProperties;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(ReplicaProperties replicaProperties) {
+        this.replicaProperties = replicaProperties;
+    }
+
+    public void recordUserWrite(Long userId) {
+        recordWrite(userKey(userId));
+    }
+
+    public void recordAccountWrite(String accountNumber) {
+        recordWrite(accountKey(accountNumber));
+    }
+
+    /**
+     * 잔액이 바뀌면 거래 내역과 계좌 목록이 모두 바뀌므로 계좌와 소유자를 함께 기록한다.
+     */
+    public void recordBalanceWrite(Account account) {
+        recordAccountWrite(account.getAccountNumber());
+        recordUserWrite(account.getAccountUser().getId());
+    }
+
+    /**
+     * 현재 트랜잭션이 끝날 때까지 userId 의 최근 쓰기가 보이는 primary 를 쓰게 한다.
+     * 트랜잭션의 첫 쿼리보다 먼저 불러야 한다.
+     */
+    public void pinIfUserWritten(Long userId) {
+        pinIfWritten(userKey(userId));
+    }
+
+    public void pinIfAccountWritten(String accountNumber) {
+        pinIfWritten(accountKey(accountNumber));
+    }
+
+    public boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(pinnedToPrimary.get());
+    }
+
+    @Scheduled(fixedDelayString =
+        "${account.datasource.replica.check-interval:PT0.5S}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        long stickiness = replicaProperties.getStickiness().toNanos();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt > stickiness);
+    }
+
+    private void recordWrite(String key) {
+        if (!replicaProperties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWrites.put(key, System.nanoTime());
+            return;
+        }
+        // 커밋되어야 다른 트랜잭션에서 보이므로 stickiness 는 커밋 시각부터 잰다.
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWrites.put(key, System.nanoTime());
+                }
+            });
+    }
+
+    private void pinIfWritten(String key) {
+        if (!replicaProperties.isEnabled()
+            || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long writtenAt = lastWrites.get(key);
+        if (writtenAt == null || System.nanoTime() - writtenAt
+            > replicaProperties.getStickiness().toNanos()) {
+            return;
+        }
+
+        pinnedToPrimary.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    pinnedToPrimary.remove();
+                }
+            });
+    }
+
+    private static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    private static String accountKey(String accountNumber) {
+        return "account:" + accountNumber;
+    }
+}
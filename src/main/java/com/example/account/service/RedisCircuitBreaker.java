@@ -0,0 +1,89 @@
+package com.example.account.service;
+
+import com.example.account.config.LockProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 락 호출의 실패를 세어, 연속으로 failure-threshold 번 실패하면 open-duration 동안
+ * Redis 를 부르지 않게 한다(OPEN). 그 시간이 지나면 요청 하나만 Redis 로 보내 보고(HALF_OPEN)
+ * 성공하면 다시 Redis 를 쓰고, 실패하면 다시 기다린다. 락을 못 잡은 것(경합)은 Redis 가
+ * 응답한 것이므로 성공으로 센다.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final LockProperties lockProperties;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    /**
+     * OPEN 이 된 시각, HALF_OPEN 에서는 시험 요청을 보낸 시각
+     */
+    private long changedAt;
+
+    public RedisCircuitBreaker(LockProperties lockProperties,
+        MeterRegistry meterRegistry) {
+        this.lockProperties = lockProperties;
+        Gauge.builder("account.lock.circuit.state", this,
+                breaker -> breaker.getState().ordinal())
+            .description("0: CLOSED, 1: OPEN, 2: HALF_OPEN")
+            .register(meterRegistry);
+    }
+
+    /**
+     * false 이면 Redis 를 부르지 말고 서버 안의 락으로 대신한다.
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        // 시험 요청이 결과를 알리지 못하고 끝났어도 open-duration 뒤에는 다시 시험한다.
+        if (System.nanoTime() - changedAt < openDurationNanos()) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        changedAt = System.nanoTime();
+        log.info("Probing redis lock");
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("Redis lock recovered");
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED
+            && consecutiveFailures >= lockProperties.getCircuitBreaker()
+            .getFailureThreshold())) {
+            state = State.OPEN;
+            changedAt = System.nanoTime();
+            log.warn("Redis lock unavailable after {} failures, "
+                + "falling back to local lock", consecutiveFailures);
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private long openDurationNanos() {
+        return lockProperties.getCircuitBreaker().getOpenDuration().toNanos();
+    }
+}
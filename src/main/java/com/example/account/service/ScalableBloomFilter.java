@@ -0,0 +1,191 @@
+package com.example.account.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 담은 수가 용량을 넘으면 두 배 용량의 필터를 뒤에 붙이는 Bloom filter (Scalable Bloom Filter).
+ * i 번째 필터의 오탐률을 p(1 - r)r^i 로 줄여 가므로 몇 번 늘어나도 전체 오탐률은 p 를 넘지 않는다.
+ * 없다고 답한 값은 반드시 넣은 적이 없는 값이다. add 와 mightContain 은 락 없이 동시에 불러도 된다.
+ */
+class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+    private static final long SEED1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final double falsePositiveRate;
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private volatile Stage current;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException(
+                "initialCapacity must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(
+                "falsePositiveRate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new Stage(initialCapacity,
+            falsePositiveRate * (1 - TIGHTENING));
+        stages.add(current);
+    }
+
+    void add(String value) {
+        long h1 = hash(value, SEED1);
+        long h2 = hash(value, SEED2);
+        // 이미 있다고 답하는 값은 비트가 모두 켜져 있으므로 다시 넣어 용량을 쓰지 않는다.
+        if (mightContain(h1, h2)) {
+            return;
+        }
+        Stage stage = current;
+        if (stage.isFull()) {
+            stage = grow(stage);
+        }
+        stage.add(h1, h2);
+    }
+
+    boolean mightContain(String value) {
+        return mightContain(hash(value, SEED1), hash(value, SEED2));
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * 지금 채워진 비트로 추정한 오탐률. 어느 한 필터에서라도 오탐이 나면 전체가 오탐이다.
+     */
+    double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Stage stage : stages) {
+            allNegative *= 1 - stage.expectedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    long size() {
+        return stages.stream().mapToLong(Stage::size).sum();
+    }
+
+    int stageCount() {
+        return stages.size();
+    }
+
+    long bitCount() {
+        return stages.stream().mapToLong(stage -> stage.bitCount).sum();
+    }
+
+    private synchronized Stage grow(Stage full) {
+        if (current != full) {
+            return current;
+        }
+        Stage next = new Stage(full.capacity * GROWTH,
+            full.falsePositiveRate * TIGHTENING);
+        stages.add(next);
+        current = next;
+        return next;
+    }
+
+    /**
+     * 64비트 FNV-1a 뒤에 MurmurHash3 의 fmix64 로 비트를 섞는다.
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong size = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // m = -n ln p / (ln 2)^2, k = (m / n) ln 2
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(1, (bits + 63) >>> 6));
+            this.bitCount = (long) wordCount << 6;
+            this.hashCount = Math.max(1,
+                (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        private boolean isFull() {
+            return size.get() >= capacity;
+        }
+
+        private long size() {
+            return size.get();
+        }
+
+        /**
+         * 두 해시의 선형 결합 h1 + i * h2 로 k 개의 위치를 만든다. (Kirsch-Mitzenmacher)
+         */
+        private void add(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                setBit(Math.floorMod(h1 + i * h2, bitCount));
+            }
+            size.incrementAndGet();
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void setBit(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long previous;
+            do {
+                previous = words.get(word);
+                if ((previous & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, previous, previous | mask));
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow(
+                1 - Math.exp(-hashCount * (double) size.get() / bitCount),
+                hashCount);
+        }
+    }
+}
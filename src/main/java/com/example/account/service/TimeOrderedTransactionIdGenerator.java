@@ -0,0 +1,94 @@
+package com.example.account.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 앞 48비트는 밀리초 시각, 다음 16비트는 노드 번호, 뒤 64비트는 순번인 128비트 ID 를 만든다.
+ * 순번은 밀리초가 바뀔 때마다 임의의 값에서 시작해 1씩 늘어나므로 한 노드 안에서는 항상 증가하고,
+ * 문자열로 정렬해도 생성 순서와 같아 인덱스 끝에 차례로 쌓인다.
+ */
+public class TimeOrderedTransactionIdGenerator implements
+    TransactionIdGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final long MAX_NODE_ID = 0xFFFFL;
+    private static final long SEQUENCE_SEED_MASK = (1L << 62) - 1;
+
+    private final long nodeId;
+
+    private long lastMillis;
+    private long sequence;
+
+    public TimeOrderedTransactionIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                "nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String generate() {
+        long high;
+        long low;
+        synchronized (this) {
+            long millis = System.currentTimeMillis();
+            if (millis > lastMillis) {
+                lastMillis = millis;
+                sequence = ThreadLocalRandom.current().nextLong()
+                    & SEQUENCE_SEED_MASK;
+            } else {
+                // 같은 밀리초이거나 시계가 뒤로 간 경우 마지막 시각을 유지한 채 순번만 올린다.
+                sequence++;
+            }
+            high = (lastMillis << 16) | nodeId;
+            low = sequence;
+        }
+
+        char[] chars = new char[32];
+        writeHex(chars, 0, high);
+        writeHex(chars, 16, low);
+        return new String(chars);
+    }
+
+    /**
+     * 이 생성기가 만든 형식(소문자 16진수 32자)인지 확인한다.
+     */
+    public static boolean isTimeOrdered(String transactionId) {
+        if (transactionId == null || transactionId.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < transactionId.length(); i++) {
+            char c = transactionId.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ID 에 담긴 생성 시각(epoch 밀리초). isTimeOrdered 인 ID 에만 쓴다.
+     */
+    public static long timestampOf(String transactionId) {
+        return high(transactionId) >>> 16;
+    }
+
+    /**
+     * ID 를 만든 노드 번호. isTimeOrdered 인 ID 에만 쓴다.
+     */
+    public static int nodeIdOf(String transactionId) {
+        return (int) (high(transactionId) & MAX_NODE_ID);
+    }
+
+    private static long high(String transactionId) {
+        return Long.parseUnsignedLong(transactionId.substring(0, 16), 16);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
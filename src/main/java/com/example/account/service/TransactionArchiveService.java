@@ -0,0 +1,38 @@
+package com.example.account.service;
+
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+
+    /**
+     * cutoff 보다 오래된 거래를 최대 chunkSize 개 보관 테이블로 복사하고 transaction 테이블에서 지운다.
+     * 한 덩어리마다 따로 커밋해 락을 짧게 잡고, 중간에 실패해도 이미 옮긴 덩어리는 유지된다.
+     *
+     * @return 옮긴 거래 수
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveChunk(LocalDateTime cutoff, int chunkSize) {
+        List<Long> ids = transactionRepository.findIdsByTransactionAtBefore(
+            cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        transactionArchiveRepository.copyFromTransactions(ids);
+        transactionRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.account.service;
+
+import com.example.account.config.ArchiveProperties;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 취소 기간이 지난 거래를 주기적으로 보관 테이블로 옮겨 transaction 테이블과 인덱스를 작게 유지한다.
+ * 여러 서버가 같은 거래를 옮기지 않도록 계좌 락과 별개인 Redis 락을 한 번의 실행 동안 잡는다.
+ * 다른 서버가 옮기는 중이거나 Redis 를 쓸 수 없으면 이번 실행은 건너뛴다. 로컬 락으로 대신하지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiver {
+
+    private static final String LOCK_KEY = "ARCHIVE:transaction";
+
+    private final TransactionArchiveService transactionArchiveService;
+    private final RedissonClient redissonClient;
+    private final ArchiveProperties archiveProperties;
+
+    @Scheduled(fixedDelayString = "${account.archive.interval:PT1H}",
+        initialDelayString = "${account.archive.interval:PT1H}")
+    public void archiveExpired() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        archiveBefore(LocalDateTime.now()
+            .minus(TransactionService.CANCEL_WINDOW));
+    }
+
+    /**
+     * @return 옮긴 거래 수. 락을 잡지 못해 건너뛰면 0
+     */
+    public long archiveBefore(LocalDateTime cutoff) {
+        // lease 없이 잡아 watchdog 이 갱신하고, 서버가 죽으면 갱신이 멈춰 락이 풀린다.
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        try {
+            if (!lock.tryLock()) {
+                log.info("Skip transaction archiving : "
+                    + "locked by another server");
+                return 0;
+            }
+        } catch (RedisException e) {
+            log.warn("Skip transaction archiving : Redis unavailable", e);
+            return 0;
+        }
+
+        try {
+            return archiveChunks(cutoff);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    private long archiveChunks(LocalDateTime cutoff) {
+        int chunkSize = archiveProperties.getChunkSize();
+        long archived = 0;
+        int moved;
+        do {
+            moved = transactionArchiveService.archiveChunk(cutoff, chunkSize);
+            archived += moved;
+        } while (moved == chunkSize);
+
+        log.info("Archived {} transactions before {}", archived, cutoff);
+        return archived;
+    }
+
+    private void unlock(RLock lock) {
+        try {
+            lock.unlock();
+        } catch (RedisException | IllegalMonitorStateException e) {
+            // 풀지 못해도 갱신은 멈추므로 watchdog 시간이 지나면 만료된다.
+            log.warn("Failed to release transaction archive lock", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.account.service;
+
+import com.example.account.config.ExportProperties;
+import com.example.account.dto.ExportResult;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 야간 정산용 CLI. 예)
+ * java -jar account.jar --spring.main.web-application-type=none
+ * --account.export.file=/data/transactions.ndjson
+ * --account.export.from=2022-09-01T00:00:00 --account.export.to=2022-09-02T00:00:00
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.export", name = "file")
+public class TransactionExportRunner implements ApplicationRunner {
+
+    private final TransactionExportService transactionExportService;
+    private final ExportProperties exportProperties;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode = 0;
+        try (OutputStream out = new BufferedOutputStream(
+            Files.newOutputStream(Paths.get(exportProperties.getFile())))) {
+            ExportResult result = transactionExportService.export(
+                exportProperties.getFrom(), exportProperties.getTo(),
+                exportProperties.getFormat(), out);
+            // 건수와 속도는 TransactionExportService 가 남긴다.
+            log.info("Wrote {} rows to {}", result.getRows(),
+                exportProperties.getFile());
+        } catch (Exception e) {
+            log.error("Transaction export failed", e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+}
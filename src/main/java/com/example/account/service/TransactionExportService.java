@@ -0,0 +1,171 @@
+package com.example.account.service;
+
+import static com.example.account.type.ErrorCode.INVALID_REQUEST;
+
+import com.example.account.columnar.ColumnarTransactionWriter;
+import com.example.account.dto.ExportResult;
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 기간 내 거래를 DB 커서에서 한 행씩 읽어 바로 출력 스트림에 쓴다.
+ * 전체 결과를 메모리에 올리지 않으므로 행 수와 관계없이 메모리 사용량이 일정하다.
+ * 보관 테이블의 거래를 먼저 쓰고 transaction 테이블의 거래를 이어 쓴다. 보관은 오래된 거래부터 하므로
+ * 이 순서가 곧 (transactionAt, id) 순서이다.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "transactionId,accountNumber,"
+        + "transactionType,transactionResultType,amount,balanceSnapshot,"
+        + "transactionAt";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final ObjectWriter rowWriter;
+
+    public TransactionExportService(
+        TransactionRepository transactionRepository,
+        TransactionArchiveRepository transactionArchiveRepository,
+        ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.rowWriter = objectMapper.writerFor(TransactionExportRow.class);
+    }
+
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ExportResult export(LocalDateTime from, LocalDateTime to,
+        ExportFormat format, OutputStream out) throws IOException {
+        validateRange(from, to);
+
+        long startedAt = System.nanoTime();
+        long rows = format == ExportFormat.COLUMNAR
+            ? exportColumnar(from, to, out)
+            : exportText(from, to, format, out);
+
+        ExportResult result = new ExportResult(rows,
+            System.nanoTime() - startedAt);
+        log.info("Exported {} transactions ({} ~ {}) as {} in {} ms, {} rows/s",
+            result.getRows(), from, to, format,
+            result.getElapsedNanos() / 1_000_000,
+            String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    private long exportText(LocalDateTime from, LocalDateTime to,
+        ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long rows = forEachRow(from, to, row -> {
+            if (format == ExportFormat.CSV) {
+                writeCsv(writer, row);
+            } else {
+                writer.write(rowWriter.writeValueAsString(row));
+            }
+            writer.write('\n');
+        });
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * 분석용 컬럼 파일로 쓴다. 형식은 ColumnarFormat 참고.
+     */
+    private long exportColumnar(LocalDateTime from, LocalDateTime to,
+        OutputStream out) throws IOException {
+        try (ColumnarTransactionWriter writer =
+                 new ColumnarTransactionWriter(out)) {
+            return forEachRow(from, to, writer::write);
+        }
+    }
+
+    /**
+     * 두 커서를 동시에 열지 않도록 보관 테이블을 다 읽고 닫은 뒤 transaction 테이블을 읽는다.
+     */
+    private long forEachRow(LocalDateTime from, LocalDateTime to,
+        RowConsumer consumer) throws IOException {
+        long rows;
+        try (Stream<TransactionExportRow> stream =
+                 transactionArchiveRepository.streamExportRows(from, to)) {
+            rows = forEach(stream, consumer);
+        }
+        try (Stream<TransactionExportRow> stream =
+                 transactionRepository.streamExportRows(from, to)) {
+            rows += forEach(stream, consumer);
+        }
+        return rows;
+    }
+
+    private static long forEach(Stream<TransactionExportRow> stream,
+        RowConsumer consumer) throws IOException {
+        long rows = 0;
+        Iterator<TransactionExportRow> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            rows++;
+        }
+        return rows;
+    }
+
+    private interface RowConsumer {
+
+        void accept(TransactionExportRow row) throws IOException;
+    }
+
+    private static void writeCsv(Writer writer, TransactionExportRow row)
+        throws IOException {
+        writer.write(csv(row.getTransactionId()));
+        writer.write(',');
+        writer.write(csv(row.getAccountNumber()));
+        writer.write(',');
+        writer.write(csv(row.getTransactionType()));
+        writer.write(',');
+        writer.write(csv(row.getTransactionResultType()));
+        writer.write(',');
+        writer.write(csv(row.getAmount()));
+        writer.write(',');
+        writer.write(csv(row.getBalanceSnapshot()));
+        writer.write(',');
+        writer.write(csv(row.getTransactionAt()));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+            && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.account.service;
+
+import com.example.account.config.TransactionIdFilterProperties;
+import com.example.account.config.TransactionIdProperties;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionIdType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 있는 거래 ID 를 Bloom filter 에 담아 두고, 필터에 없는 ID 의 취소/조회는 DB 를 읽지 않고
+ * TRANSACTION_NOT_FOUND 로 답하게 한다. 시작할 때와 rebuild-interval 마다 transaction,
+ * transaction_archive 테이블을 읽어 새로 만들고, 이 서버가 만든 ID 는 저장할 때 바로 넣는다.
+ * <p>
+ * 다른 서버가 재구성 이후에 만든 ID 는 필터가 모르므로, ID 에 담긴 생성 시각이 재구성 시작
+ * 무렵(clock-skew 만큼 앞)보다 늦으면 필터와 상관없이 DB 에 묻는다. 단 지금보다 clock-skew
+ * 이상 뒤의 시각은 어느 서버도 만들 수 없으므로 필터만으로 거절한다. 임의의 문자열도 대부분 먼
+ * 미래의 시각으로 읽히기 때문이다. 시각이 담기지 않는 UUID 방식에서는 이를 구분할 수 없어
+ * 필터를 쓰지 않는다.
+ */
+@Slf4j
+@Service
+public class TransactionIdFilter {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionIdFilterProperties properties;
+    private final TransactionIdProperties transactionIdProperties;
+    private final Counter rejectedCounter;
+
+    private volatile Generation generation;
+    private volatile ScalableBloomFilter building;
+
+    public TransactionIdFilter(TransactionRepository transactionRepository,
+        TransactionArchiveRepository transactionArchiveRepository,
+        PlatformTransactionManager transactionManager,
+        TransactionIdFilterProperties properties,
+        TransactionIdProperties transactionIdProperties,
+        MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        // readOnly 로 두면 복제본으로 갈 수 있다. 복제 지연만큼 빠진 ID 를 없다고 답하지 않도록 primary 에서 읽는다.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.transactionIdProperties = transactionIdProperties;
+
+        this.rejectedCounter = Counter.builder(
+                "account.transaction-id.filter.rejected")
+            .description("Lookups answered as not found without the database")
+            .register(meterRegistry);
+        Gauge.builder("account.transaction-id.filter.false-positive-rate",
+                properties, TransactionIdFilterProperties::getFalsePositiveRate)
+            .tag("kind", "configured")
+            .register(meterRegistry);
+        Gauge.builder("account.transaction-id.filter.false-positive-rate",
+                this, filter -> filter.statistic(
+                    ScalableBloomFilter::expectedFalsePositiveRate))
+            .tag("kind", "expected")
+            .register(meterRegistry);
+        Gauge.builder("account.transaction-id.filter.size", this,
+                filter -> filter.statistic(ScalableBloomFilter::size))
+            .description("Transaction ids held in the filter")
+            .register(meterRegistry);
+        Gauge.builder("account.transaction-id.filter.stages", this,
+                filter -> filter.statistic(ScalableBloomFilter::stageCount))
+            .register(meterRegistry);
+    }
+
+    /**
+     * false 이면 그 ID 의 거래는 transaction, transaction_archive 어디에도 없다.
+     * 필터를 아직 만들지 못했으면 항상 true 이다.
+     */
+    public boolean mightExist(String transactionId) {
+        Generation current = generation;
+        if (!isActive() || current == null
+            || current.filter.mightContain(transactionId)
+            || current.mayMiss(transactionId,
+            transactionIdProperties.getNodeId(), System.currentTimeMillis()
+                + properties.getClockSkew().toMillis())) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * 이 서버에서 새로 만든 ID 를 넣는다. 롤백되어 남지 않는 ID 가 들어가도 오탐이 될 뿐이다.
+     */
+    public void add(String transactionId) {
+        // 재구성 중인 필터를 먼저 읽어야, 교체 직후 building 이 비워져도 새 필터에 넣게 된다.
+        ScalableBloomFilter next = building;
+        Generation current = generation;
+        if (next != null) {
+            next.add(transactionId);
+        }
+        if (current != null) {
+            current.filter.add(transactionId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildQuietly();
+    }
+
+    @Scheduled(
+        fixedDelayString = "${account.transaction-id-filter.rebuild-interval:PT1H}",
+        initialDelayString = "${account.transaction-id-filter.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        rebuildQuietly();
+    }
+
+    private void rebuildQuietly() {
+        if (!isActive()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            // 이전 필터(없으면 필터 없이 DB 조회)를 그대로 쓰고 다음 주기에 다시 만든다.
+            log.error("Failed to rebuild transaction id filter", e);
+        }
+    }
+
+    /**
+     * 두 테이블의 ID 를 모두 읽어 새 필터를 만든 뒤 바꿔 끼운다. 읽는 동안 저장되는 ID 는
+     * 새 필터에도 넣는다.
+     */
+    public synchronized void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        long knownBefore = startedAt - properties.getClockSkew().toMillis();
+        long existing = transactionRepository.count()
+            + transactionArchiveRepository.count();
+        ScalableBloomFilter next = new ScalableBloomFilter(
+            Math.max(properties.getExpectedInsertions(), existing * 2),
+            properties.getFalsePositiveRate());
+
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> ids = transactionRepository
+                    .streamTransactionIds()) {
+                    ids.forEach(next::add);
+                }
+                try (Stream<String> ids = transactionArchiveRepository
+                    .streamTransactionIds()) {
+                    ids.forEach(next::add);
+                }
+            });
+            generation = new Generation(next, knownBefore,
+                System.currentTimeMillis());
+        } finally {
+            building = null;
+        }
+
+        log.info("Rebuilt transaction id filter : {} ids, {} bits, {} ms",
+            next.size(), next.bitCount(),
+            System.currentTimeMillis() - startedAt);
+    }
+
+    private boolean isActive() {
+        return properties.isEnabled() && transactionIdProperties.getType()
+            == TransactionIdType.TIME_ORDERED;
+    }
+
+    private double statistic(
+        ToDoubleFunction<ScalableBloomFilter> statistic) {
+        Generation current = generation;
+        return current == null ? Double.NaN
+            : statistic.applyAsDouble(current.filter);
+    }
+
+    private static final class Generation {
+
+        private final ScalableBloomFilter filter;
+        /**
+         * 이 시각보다 먼저 만들어진 ID 는 재구성 때 모두 읽었다.
+         */
+        private final long knownBefore;
+        /**
+         * 이 시각부터 이 서버가 만든 ID 는 add 로 모두 들어온다.
+         */
+        private final long builtAt;
+
+        private Generation(ScalableBloomFilter filter, long knownBefore,
+            long builtAt) {
+            this.filter = filter;
+            this.knownBefore = knownBefore;
+            this.builtAt = builtAt;
+        }
+
+        /**
+         * 필터에 없지만 재구성 이후 다른 서버(또는 재구성 중 이 서버)가 만들었을 수 있는 ID 인지
+         *
+         * @param notAfter 이 시각보다 뒤에 만들어졌다는 ID 는 있을 수 없다.
+         */
+        private boolean mayMiss(String transactionId, int localNodeId,
+            long notAfter) {
+            if (!TimeOrderedTransactionIdGenerator.isTimeOrdered(
+                transactionId)) {
+                return false;
+            }
+            long createdAt = TimeOrderedTransactionIdGenerator.timestampOf(
+                transactionId);
+            if (createdAt < knownBefore || createdAt > notAfter) {
+                return false;
+            }
+            return createdAt < builtAt || localNodeId
+                != TimeOrderedTransactionIdGenerator.nodeIdOf(transactionId);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.account.service;
+
+/**
+ * 거래 ID 생성기. 외부로 나가는 거래 ID 는 32 자리 소문자 16진수 문자열이다.
+ */
+public interface TransactionIdGenerator {
+
+    String generate();
+}
@@ -0,0 +1,91 @@
+package com.example.account.service;
+
+import com.example.account.config.TransactionResponseCacheProperties;
+import com.example.account.dto.QueryTransactionResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Function;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 거래는 저장된 뒤 바뀌지 않으므로 거래 조회 응답을 JSON 바이트로 직렬화해 둔다.
+ * 적중하면 DB 조회, DTO 변환, Jackson 직렬화를 모두 건너뛴다.
+ * 거래를 저장한 서버는 커밋 후 바로 채우고, 다른 서버는 처음 조회할 때 채운다.
+ */
+@Service
+public class TransactionResponseCache {
+
+    static final String CACHE_NAME = "transactionResponse";
+
+    private final ObjectWriter responseWriter;
+    private final Cache<String, byte[]> cache;
+
+    public TransactionResponseCache(ObjectMapper objectMapper,
+        TransactionResponseCacheProperties properties,
+        MeterRegistry meterRegistry) {
+        this.responseWriter = objectMapper.writerFor(
+            QueryTransactionResponse.class);
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxSize().toBytes())
+            .weigher((String transactionId, byte[] json) ->
+                transactionId.length() + json.length)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.weight", cache, c -> c.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L))
+            .tag("cache", CACHE_NAME)
+            .baseUnit("bytes")
+            .description("Bytes of serialized responses held")
+            .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 캐시에 없으면 loader 로 읽어 직렬화한 뒤 넣는다. loader 의 예외는 그대로 던지며 캐시하지 않는다.
+     */
+    public byte[] get(String transactionId,
+        Function<String, QueryTransactionResponse> loader) {
+        return cache.get(transactionId,
+            key -> serialize(loader.apply(key)));
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 응답을 미리 채운다. 롤백되면 아무것도 하지 않는다.
+     */
+    public void putAfterCommit(QueryTransactionResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(response.getTransactionId(), serialize(response));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(response.getTransactionId(),
+                        serialize(response));
+                }
+            });
+    }
+
+    private byte[] serialize(QueryTransactionResponse response) {
+        try {
+            return responseWriter.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                "Failed to serialize transaction response", e);
+        }
+    }
+}
@@ -5,51 +5,92 @@ import static com.example.account.type.ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
 import static com.example.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
 import static com.example.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
 import static com.example.account.type.ErrorCode.CANCEL_MUST_FULLY;
+import static com.example.account.type.ErrorCode.INVALID_REQUEST;
 import static com.example.account.type.ErrorCode.TOO_OLD_ORDER_TO_CANCEL;
 import static com.example.account.type.ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH;
 import static com.example.account.type.ErrorCode.TRANSACTION_NOT_FOUND;
 import static com.example.account.type.ErrorCode.USER_ACCOUNT_UN_MATCH;
-import static com.example.account.type.ErrorCode.USER_NOT_FOUND;
 import static com.example.account.type.TransactionResultType.F;
 import static com.example.account.type.TransactionResultType.S;
 import static com.example.account.type.TransactionType.CANCEL;
 import static com.example.account.type.TransactionType.USE;
 
+import com.example.account.config.BalanceProperties;
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceSlot;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionCursor;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.dto.TransactionDto;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceSlotRepository;
 import com.example.account.repository.AccountRepository;
-import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionArchiveRepository;
 import com.example.account.repository.TransactionRepository;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import java.time.LocalDateTime;
-import java.util.UUID;
-import javax.transaction.Transactional;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    /**
+     * 이 기간이 지난 거래는 취소할 수 없으며, TransactionArchiver 가 보관 테이블로 옮긴다.
+     */
+    public static final Period CANCEL_WINDOW = Period.ofYears(1);
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final Comparator<TransactionHistoryItem> NEWEST_FIRST =
+        Comparator.comparing(TransactionHistoryItem::getTransactionAt)
+            .thenComparing(TransactionHistoryItem::getId)
+            .reversed();
+
     private final TransactionRepository transactionRepository;
-    private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final BalanceProperties balanceProperties;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final AccountBalanceReader accountBalanceReader;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TransactionResponseCache transactionResponseCache;
+    private final TransactionIdFilter transactionIdFilter;
+    private final NegativeLookupCache negativeLookupCache;
+    private final LastKnownBalanceCache lastKnownBalanceCache;
 
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber,
         Long amount) {
-        AccountUser user = accountUserRepository.findById(userId)
-            .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        AccountUser user = negativeLookupCache.findUser(userId);
+        AccountMetadata metadata = negativeLookupCache.findAccount(
+            accountNumber);
+
+        validateUseBalance(user, metadata);
+
+        if (balanceProperties.getMode() == BalanceMode.CONDITIONAL_UPDATE) {
+            return useBalanceConditionally(metadata, amount);
+        }
+        Account account = getAccount(metadata);
 
-        validateUseBalance(user, account, amount);
+        validateBalance(account, amount);
 
         account.useBalance(amount);
 
@@ -57,11 +98,40 @@ public class TransactionService {
             saveAndGetTransaction(USE, S, account, amount));
     }
 
-    private void validateUseBalance(AccountUser user, Account account,
+    /**
+     * 분산 락 없이 조건부 UPDATE 한 문장으로 차감한다. 차감 후 다시 읽은 잔액은
+     * 이 트랜잭션이 행 락을 쥔 상태의 값이므로 그대로 스냅샷으로 쓴다.
+     * 차감하지 못했을 때만 계좌를 다시 읽어, 캐시가 아직 모르는 해지와 잔액 부족을 구분한다.
+     */
+    private TransactionDto useBalanceConditionally(AccountMetadata metadata,
         Long amount) {
-        if (!user.getId().equals(account.getAccountUser().getId())) {
+        int updated = accountRepository.useBalanceIfSufficient(
+            metadata.getAccountNumber(), amount);
+        if (updated == 0) {
+            validateBalance(getAccount(metadata), amount);
+            // 조건에 걸리지 않았는데 그 사이 다른 요청이 잔액을 바꾼 경우
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
+        Account account = getAccount(metadata);
+
+        return TransactionDto.fromEntity(
+            saveAndGetTransaction(USE, S, account, amount));
+    }
+
+    private void validateUseBalance(AccountUser user,
+        AccountMetadata metadata) {
+        if (!user.getId().equals(metadata.getAccountUserId())) {
             throw new AccountException(USER_ACCOUNT_UN_MATCH);
         }
+        if (metadata.getAccountStatus() != IN_USE) {
+            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    /**
+     * 캐시가 다른 서버의 해지를 아직 모를 수 있어, 읽은 계좌로 상태를 한 번 더 본다.
+     */
+    private void validateBalance(Account account, Long amount) {
         if (account.getAccountStatus() != IN_USE) {
             throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
         }
@@ -70,10 +140,115 @@ public class TransactionService {
         }
     }
 
+    /**
+     * 같은 계좌의 잔액 사용 요청 여러 건을 한 트랜잭션에서 순서대로 적용한다.
+     * 요청마다 성공/실패 거래를 남기고, 결과는 각 {@link BatchedUse} 에 담는다.
+     * 호출자가 계좌 락을 쥐고 있어야 한다.
+     */
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+    public void useBalanceBatch(String accountNumber, List<BatchedUse> uses) {
+        AccountMetadata metadata = negativeLookupCache.findAccount(
+            accountNumber);
+        Account account = getAccount(metadata);
+        Map<Long, AccountUser> users = new HashMap<>();
+
+        for (BatchedUse use : uses) {
+            try {
+                // 없는 사용자는 담기지 않고, 같은 사용자의 다음 요청은 없는 사용자 캐시에서 거절된다.
+                AccountUser user = users.computeIfAbsent(use.getUserId(),
+                    negativeLookupCache::findUser);
+
+                validateUseBalance(user, metadata);
+                validateBalance(account, use.getAmount());
+
+                account.useBalance(use.getAmount());
+
+                use.succeed(TransactionDto.fromEntity(
+                    saveAndGetTransaction(USE, S, account, use.getAmount())));
+            } catch (AccountException e) {
+                saveAndGetTransaction(USE, F, account, use.getAmount());
+                use.fail(e);
+            }
+        }
+    }
+
+    /**
+     * 칸으로 나뉜 계좌에서 지정한 칸들의 잔액으로만 차감한다. 칸들의 합이 모자라면
+     * AMOUNT_EXCEED_BALANCE 로 롤백되며, 호출자가 해당 칸들의 락을 쥐고 있어야 한다.
+     */
+    @Transactional
+    public TransactionDto useSlotBalance(Long userId, String accountNumber,
+        List<Integer> slotNos, Long amount) {
+        AccountUser user = negativeLookupCache.findUser(userId);
+        AccountMetadata metadata = negativeLookupCache.findAccount(
+            accountNumber);
+
+        validateUseBalance(user, metadata);
+
+        Account account = getAccount(metadata);
+        validateBalance(account, 0L);
+
+        List<AccountBalanceSlot> slots = accountBalanceSlotRepository
+            .findByAccountAndSlotNoInOrderBySlotNo(account, slotNos);
+        long available = slots.stream()
+            .mapToLong(AccountBalanceSlot::getBalance)
+            .sum();
+        if (amount < 0) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+        if (available < amount) {
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
+
+        long remaining = amount;
+        for (AccountBalanceSlot slot : slots) {
+            long debit = Math.min(slot.getBalance(), remaining);
+            slot.setBalance(slot.getBalance() - debit);
+            remaining -= debit;
+            if (remaining == 0) {
+                break;
+            }
+        }
+
+        return TransactionDto.fromEntity(
+            saveAndGetTransaction(USE, S, account, amount));
+    }
+
+    /**
+     * 칸으로 나뉜 계좌의 취소 금액을 지정한 칸에 되돌린다. 호출자가 해당 칸의 락을 쥐고 있어야 한다.
+     */
+    @Transactional
+    public TransactionDto cancelSlotBalance(String transactionId,
+        String accountNumber, Integer slotNo, Long amount) {
+        Transaction transaction = getTransactionToCancel(transactionId);
+        AccountMetadata metadata = negativeLookupCache.findAccount(
+            accountNumber);
+
+        validateCancelBalance(transaction, metadata, amount);
+        if (amount < 0) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+
+        Account account = getAccount(metadata);
+        AccountBalanceSlot slot = accountBalanceSlotRepository
+            .findByAccountAndSlotNoInOrderBySlotNo(account, List.of(slotNo))
+            .stream()
+            .findFirst()
             .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        slot.setBalance(slot.getBalance() + amount);
+
+        return TransactionDto.fromEntity(
+            saveAndGetTransaction(CANCEL, S, account, amount)
+        );
+    }
+
+    /**
+     * 실패한 거래도 잔액 스냅샷을 남기므로 계좌 행을 읽는다.
+     */
+    @Transactional
+    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+        Account account = getAccount(
+            negativeLookupCache.findAccountUncounted(accountNumber));
 
         saveAndGetTransaction(USE, F, account, amount);
     }
@@ -82,30 +257,46 @@ public class TransactionService {
         TransactionType transactionType,
         TransactionResultType transactionResultType,
         Account account, Long amount) {
-        return transactionRepository.save(
-            Transaction.builder()
-                .transactionType(transactionType)
-                .transactionResultType(transactionResultType)
-                .account(account)
-                .amount(amount)
-                .balanceSnapshot(account.getBalance())
-                .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                .transactionAt(LocalDateTime.now())
-                .build()
-        );
+        readYourWritesTracker.recordBalanceWrite(account);
+        Transaction transaction = Transaction.builder()
+            .transactionType(transactionType)
+            .transactionResultType(transactionResultType)
+            .account(account)
+            .amount(amount)
+            .balanceSnapshot(accountBalanceReader.totalBalance(account))
+            .transactionId(transactionIdGenerator.generate())
+            .transactionAt(LocalDateTime.now())
+            .build();
+        transactionIdFilter.add(transaction.getTransactionId());
+        lastKnownBalanceCache.updateAfterCommit(account,
+            transactionType == CANCEL && transactionResultType == S);
+        transactionResponseCache.putAfterCommit(QueryTransactionResponse.from(
+            TransactionDto.fromEntity(transaction)));
+        return transactionRepository.save(transaction);
     }
 
     @Transactional
     public TransactionDto cancelBalance(String transactionId,
         String accountNumber, Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(
-                transactionId)
-            .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        Transaction transaction = getTransactionToCancel(transactionId);
+        AccountMetadata metadata = negativeLookupCache.findAccount(
+            accountNumber);
+
+        validateCancelBalance(transaction, metadata, amount);
+        lastKnownBalanceCache.beforeRaise(accountNumber);
 
-        validateCancelBalance(transaction, account, amount);
+        if (balanceProperties.getMode() == BalanceMode.CONDITIONAL_UPDATE) {
+            if (amount < 0) {
+                throw new AccountException(INVALID_REQUEST);
+            }
+            accountRepository.cancelBalance(accountNumber, amount);
 
+            return TransactionDto.fromEntity(
+                saveAndGetTransaction(CANCEL, S, getAccount(metadata), amount)
+            );
+        }
+
+        Account account = getAccount(metadata);
         account.cancelBalance(amount);
 
         return TransactionDto.fromEntity(
@@ -113,16 +304,46 @@ public class TransactionService {
         );
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account,
-        Long amount) {
-        if (!transaction.getAccount().getId().equals(account.getId())) {
+    /**
+     * 보관 테이블로 옮겨진 거래는 취소 기간이 지난 거래이므로 TOO_OLD_ORDER_TO_CANCEL 로 거절한다.
+     */
+    private Transaction getTransactionToCancel(String transactionId) {
+        validateTransactionIdKnown(transactionId);
+        return transactionRepository.findByTransactionId(transactionId)
+            .orElseThrow(() -> new AccountException(
+                transactionArchiveRepository.existsByTransactionId(
+                    transactionId)
+                    ? TOO_OLD_ORDER_TO_CANCEL
+                    : TRANSACTION_NOT_FOUND));
+    }
+
+    /**
+     * 잔액이 필요할 때만 계좌 행을 읽는다.
+     */
+    private Account getAccount(AccountMetadata metadata) {
+        return accountRepository.findById(metadata.getId())
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    }
+
+    /**
+     * 거래 ID 필터에 없는 ID 는 두 테이블 어디에도 없으므로 DB 를 읽지 않고 거절한다.
+     */
+    private void validateTransactionIdKnown(String transactionId) {
+        if (!transactionIdFilter.mightExist(transactionId)) {
+            throw new AccountException(TRANSACTION_NOT_FOUND);
+        }
+    }
+
+    private void validateCancelBalance(Transaction transaction,
+        AccountMetadata metadata, Long amount) {
+        if (!transaction.getAccount().getId().equals(metadata.getId())) {
             throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH);
         }
         if (!transaction.getAmount().equals(amount)) {
             throw new AccountException(CANCEL_MUST_FULLY);
         }
         if (transaction.getTransactionAt()
-            .isBefore(LocalDateTime.now().minusYears(1))) {
+            .isBefore(LocalDateTime.now().minus(CANCEL_WINDOW))) {
             throw new AccountException(TOO_OLD_ORDER_TO_CANCEL);
         }
 
@@ -130,17 +351,72 @@ public class TransactionService {
 
     @Transactional
     public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        Account account = getAccount(
+            negativeLookupCache.findAccountUncounted(accountNumber));
 
         saveAndGetTransaction(CANCEL, F, account, amount);
     }
 
-    @Transactional
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-            transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND))
-        );
+    /**
+     * 거래 조회용. 엔티티를 읽지 않고 응답 컬럼만 바로 읽으며, transaction 테이블에 없으면
+     * 보관 테이블에서 찾는다.
+     */
+    @Transactional(readOnly = true)
+    public QueryTransactionResponse queryTransactionResponse(
+        String transactionId) {
+        validateTransactionIdKnown(transactionId);
+        return transactionRepository.findResponseByTransactionId(transactionId)
+            .or(() -> transactionArchiveRepository
+                .findResponseByTransactionId(transactionId))
+            .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+    }
+
+    /**
+     * 계좌의 거래 내역을 최신순으로 size 개씩 읽는다. cursor 가 없으면 첫 페이지이다.
+     * 방금 거래가 있었던 계좌는 복제본이 아닌 primary 에서 읽는다. 계좌 id 는 캐시에서 찾는다.
+     * transaction 테이블에서 페이지를 다 채우지 못하면 같은 커서로 보관 테이블에서 이어 읽는다.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryResponse getTransactionHistory(
+        String accountNumber, String cursor, int size,
+        TransactionType transactionType,
+        TransactionResultType transactionResultType) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+        readYourWritesTracker.pinIfAccountWritten(accountNumber);
+        Long accountId = negativeLookupCache.findAccount(accountNumber).getId();
+
+        // 다음 페이지가 있는지 알기 위해 하나 더 읽는다.
+        PageRequest limit = PageRequest.of(0, size + 1);
+        TransactionCursor after = cursor == null ? null
+            : TransactionCursor.decode(cursor);
+        List<TransactionHistoryItem> items = after == null
+            ? transactionRepository.findHistory(accountId,
+                transactionType, transactionResultType, limit)
+            : transactionRepository.findHistoryAfter(accountId,
+                after.getTransactionAt(), after.getId(),
+                transactionType, transactionResultType, limit);
+        if (items.size() <= size) {
+            // 보관은 오래된 거래부터 하므로 보관된 거래는 남은 거래보다 오래되었지만, 순서는 다시 맞춘다.
+            items = new ArrayList<>(items);
+            items.addAll(after == null
+                ? transactionArchiveRepository.findHistory(accountId,
+                    transactionType, transactionResultType, limit)
+                : transactionArchiveRepository.findHistoryAfter(accountId,
+                    after.getTransactionAt(), after.getId(),
+                    transactionType, transactionResultType, limit));
+            items.sort(NEWEST_FIRST);
+        }
+
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = TransactionCursor.from(items.get(size - 1)).encode();
+        }
+        return TransactionHistoryResponse.builder()
+            .transactions(items)
+            .nextCursor(nextCursor)
+            .build();
     }
 }
@@ -0,0 +1,228 @@
+package com.example.account.service;
+
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.BalanceProperties;
+import com.example.account.dto.TransactionDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * BATCHED 모드에서 같은 계좌로 몰린 잔액 사용 요청을 모아 한 번의 락, 한 번의 DB 트랜잭션으로 처리한다.
+ * 대기열이 비어 있을 때 들어온 요청 스레드가 리더가 되어 window 동안 요청을 모은 뒤 배치를 실행하고,
+ * 남은 요청이 있으면 그 중 첫 요청 스레드에게 리더를 넘긴다.
+ */
+@Slf4j
+@Component
+public class UseBalanceBatcher {
+
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final LockPolicyResolver lockPolicyResolver;
+    private final BalanceProperties balanceProperties;
+
+    private final ConcurrentHashMap<String, AccountQueue> queues =
+        new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizeSummary;
+
+    public UseBalanceBatcher(TransactionService transactionService,
+        LockService lockService,
+        LockPolicyResolver lockPolicyResolver,
+        BalanceProperties balanceProperties,
+        MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.lockPolicyResolver = lockPolicyResolver;
+        this.balanceProperties = balanceProperties;
+        this.batchSizeSummary = DistributionSummary.builder(
+                "account.balance.batch.size")
+            .register(meterRegistry);
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber,
+        Long amount) {
+        PendingUse pendingUse = new PendingUse(new BatchedUse(userId, amount));
+
+        AccountQueue queue;
+        Boolean added;
+        do {
+            queue = queues.computeIfAbsent(accountNumber,
+                key -> new AccountQueue());
+            added = queue.add(pendingUse);
+        } while (added == null);
+
+        boolean leader = added;
+        while (true) {
+            if (leader) {
+                lead(accountNumber, queue);
+            }
+            if (pendingUse.isFinished()) {
+                return pendingUse.getUse().getResultOrThrow();
+            }
+            leader = pendingUse.awaitTurn();
+        }
+    }
+
+    private void lead(String accountNumber, AccountQueue queue) {
+        BalanceProperties.Batch batch = balanceProperties.getBatch();
+        List<PendingUse> pendingUses = queue.drain(batch.getMaxSize(),
+            batch.getWindow().toNanos());
+        batchSizeSummary.record(pendingUses.size());
+
+        try {
+            execute(accountNumber, pendingUses);
+        } finally {
+            for (PendingUse pendingUse : pendingUses) {
+                pendingUse.finish();
+            }
+            PendingUse next = queue.finishBatch();
+            if (next != null) {
+                next.promote();
+            } else {
+                queues.remove(accountNumber, queue);
+            }
+        }
+    }
+
+    private void execute(String accountNumber, List<PendingUse> pendingUses) {
+        List<BatchedUse> uses = new ArrayList<>(pendingUses.size());
+        for (PendingUse pendingUse : pendingUses) {
+            uses.add(pendingUse.getUse());
+        }
+
+        try {
+            // 배치 전체를 계좌 락 하나로 보호한다. 잔액 사용 엔드포인트와 같은 정책을 쓴다.
+            LockPolicy policy = lockPolicyResolver.resolve(
+                LockPolicyResolver.USE_POLICY);
+            lockService.lock(accountNumber, policy);
+            try {
+                transactionService.useBalanceBatch(accountNumber, uses);
+            } finally {
+                lockService.unlock(accountNumber, policy);
+            }
+        } catch (RuntimeException e) {
+            // 트랜잭션이 롤백되었으므로 이미 성공으로 표시된 요청도 모두 실패다.
+            log.error("Failed to use balance in batch.", e);
+            for (BatchedUse use : uses) {
+                use.fail(e);
+            }
+        }
+    }
+
+    private static final class AccountQueue {
+
+        private final ArrayDeque<PendingUse> pending = new ArrayDeque<>();
+        private boolean leaderActive;
+        private boolean closed;
+
+        /**
+         * @return 리더가 되었으면 true, 대기하면 false, 이미 정리된 대기열이면 null
+         */
+        private synchronized Boolean add(PendingUse pendingUse) {
+            if (closed) {
+                return null;
+            }
+            pending.add(pendingUse);
+            notifyAll();
+            if (leaderActive) {
+                return false;
+            }
+            leaderActive = true;
+            return true;
+        }
+
+        private synchronized List<PendingUse> drain(int maxSize,
+            long windowNanos) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while (pending.size() < maxSize && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+
+            List<PendingUse> drained = new ArrayList<>(
+                Math.min(maxSize, pending.size()));
+            while (drained.size() < maxSize && !pending.isEmpty()) {
+                drained.add(pending.poll());
+            }
+            return drained;
+        }
+
+        /**
+         * 배치를 마친 리더가 호출한다. 다음 리더가 될 요청을 반환하고, 없으면 대기열을 닫는다.
+         */
+        private synchronized PendingUse finishBatch() {
+            if (pending.isEmpty()) {
+                leaderActive = false;
+                closed = true;
+                return null;
+            }
+            return pending.peek();
+        }
+    }
+
+    private static final class PendingUse {
+
+        private final BatchedUse use;
+        private boolean finished;
+        private boolean promoted;
+
+        private PendingUse(BatchedUse use) {
+            this.use = use;
+        }
+
+        private BatchedUse getUse() {
+            return use;
+        }
+
+        private synchronized boolean isFinished() {
+            return finished;
+        }
+
+        private synchronized void finish() {
+            finished = true;
+            notifyAll();
+        }
+
+        private synchronized void promote() {
+            promoted = true;
+            notifyAll();
+        }
+
+        /**
+         * 결과가 나오거나 리더로 지목될 때까지 기다린다.
+         *
+         * @return 리더로 지목되었으면 true
+         */
+        private synchronized boolean awaitTurn() {
+            boolean interrupted = false;
+            while (!finished && !promoted) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    // 리더를 넘겨받을 수 있으므로 결과가 나올 때까지 자리를 지킨다.
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (promoted && !finished) {
+                promoted = false;
+                return true;
+            }
+            return false;
+        }
+    }
+}
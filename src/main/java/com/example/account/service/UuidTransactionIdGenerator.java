@@ -0,0 +1,11 @@
+package com.example.account.service;
+
+import java.util.UUID;
+
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+    @Override
+    public String generate() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BalanceMode {
+    LOCKED(true),
+    CONDITIONAL_UPDATE(false),
+    OPTIMISTIC(false),
+    PARTITIONED(false),
+    BATCHED(true);
+
+    /**
+     * false 이면 잔액 변경 자체가 동시성을 보장하므로 @AccountLock 의 분산 락을 건너뛴다.
+     */
+    private final boolean distributedLockRequired;
+}
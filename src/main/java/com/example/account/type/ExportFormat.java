@@ -0,0 +1,17 @@
+package com.example.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv"),
+    /**
+     * 분석용 컬럼 형식. com.example.account.columnar 참고
+     */
+    COLUMNAR("application/octet-stream");
+
+    private final String contentType;
+}
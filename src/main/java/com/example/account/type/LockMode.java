@@ -0,0 +1,5 @@
+package com.example.account.type;
+
+public enum LockMode {
+    REDIS, TWO_TIER
+}
@@ -0,0 +1,195 @@
+package com.example.account.columnar;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.columnar.ColumnarFormat.Column;
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarTransactionFormatTest {
+
+    private static final LocalDateTime START =
+        LocalDateTime.of(2022, 9, 1, 0, 0, 0, 123_456_000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void roundTrip_acrossRowGroups() throws Exception {
+        //given
+        Path file = tempDir.resolve("transactions.acol");
+        List<TransactionExportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            rows.add(row(i + 1L, i % 3, START.plusSeconds(i * 7L),
+                i % 2 == 0 ? USE : CANCEL, i % 5 == 0 ? F : S,
+                1_000L * i, 100_000L - 1_000L * i));
+        }
+        write(file, rows, 10);
+
+        //when
+        List<TransactionExportRow> read = new ArrayList<>();
+        List<Integer> groupSizes = new ArrayList<>();
+        try (ColumnarTransactionReader reader =
+                 ColumnarTransactionReader.open(file)) {
+            reader.scan(EnumSet.allOf(Column.class), batch -> {
+                groupSizes.add(batch.getRowCount());
+                for (int row = 0; row < batch.getRowCount(); row++) {
+                    read.add(TransactionExportRow.builder()
+                        .id(batch.getId(row))
+                        .accountId(batch.getAccountId(row))
+                        .transactionType(batch.getTransactionType(row))
+                        .transactionResultType(
+                            batch.getTransactionResultType(row))
+                        .amount(batch.getAmount(row))
+                        .balanceSnapshot(batch.getBalanceSnapshot(row))
+                        .transactionAt(LocalDateTime.ofEpochSecond(
+                            Math.floorDiv(batch.getTransactionAtMicros(row),
+                                1_000_000L),
+                            (int) Math.floorMod(
+                                batch.getTransactionAtMicros(row),
+                                1_000_000L) * 1_000,
+                            ZoneOffset.UTC))
+                        .build());
+                }
+            });
+        }
+
+        //then
+        assertEquals(List.of(10, 10, 5), groupSizes);
+        assertEquals(rows.size(), read.size());
+        for (int i = 0; i < rows.size(); i++) {
+            TransactionExportRow expected = rows.get(i);
+            TransactionExportRow actual = read.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getAccountId(), actual.getAccountId());
+            assertEquals(expected.getTransactionType(),
+                actual.getTransactionType());
+            assertEquals(expected.getTransactionResultType(),
+                actual.getTransactionResultType());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getBalanceSnapshot(),
+                actual.getBalanceSnapshot());
+            assertEquals(expected.getTransactionAt(),
+                actual.getTransactionAt());
+        }
+    }
+
+    @Test
+    public void scan_decodesOnlyRequestedColumns() throws Exception {
+        //given
+        Path file = tempDir.resolve("transactions.acol");
+        write(file, List.of(row(1L, 1L, START, USE, S, 100L, 900L)), 10);
+
+        //when
+        List<ColumnBatch> batches = new ArrayList<>();
+        try (ColumnarTransactionReader reader =
+                 ColumnarTransactionReader.open(file)) {
+            reader.scan(EnumSet.of(Column.AMOUNT), batches::add);
+        }
+
+        //then
+        ColumnBatch batch = batches.get(0);
+        assertEquals(100L, batch.getAmount(0));
+        assertNull(batch.ids);
+        assertNull(batch.balanceSnapshots);
+        assertThrows(IllegalStateException.class, () -> batch.getId(0));
+    }
+
+    @Test
+    public void sumAmount_filtersByTypeResultAndRange() throws Exception {
+        //given
+        Path file = tempDir.resolve("transactions.acol");
+        write(file, List.of(
+            row(1L, 1L, START, USE, S, 100L, 900L),
+            row(2L, 1L, START.plusHours(1), USE, F, 200L, 900L),
+            row(3L, 2L, START.plusHours(2), CANCEL, S, 400L, 1300L),
+            row(4L, 2L, START.plusHours(3), USE, S, 800L, 500L),
+            row(5L, 1L, START.plusDays(1), USE, S, 1600L, 0L)), 2);
+
+        //when
+        long sum;
+        try (ColumnarTransactionReader reader =
+                 ColumnarTransactionReader.open(file)) {
+            sum = reader.sumAmount(USE, S, START, START.plusDays(1));
+        }
+
+        //then
+        assertEquals(900L, sum);
+    }
+
+    @Test
+    public void emptyFile_hasNoRowGroups() throws Exception {
+        //given
+        Path file = tempDir.resolve("transactions.acol");
+        write(file, List.of(), 10);
+
+        //when
+        List<ColumnBatch> batches = new ArrayList<>();
+        try (ColumnarTransactionReader reader =
+                 ColumnarTransactionReader.open(file)) {
+            reader.scan(EnumSet.allOf(Column.class), batches::add);
+        }
+
+        //then
+        assertTrue(batches.isEmpty());
+        assertArrayEquals(new byte[]{'A', 'C', 'O', 'L', 1, 0, 0, 0, 0},
+            Files.readAllBytes(file));
+    }
+
+    @Test
+    public void openFailed_notColumnarFile() throws Exception {
+        //given
+        Path file = tempDir.resolve("transactions.csv");
+        Files.writeString(file, "transactionId,accountNumber");
+
+        //when
+        //then
+        assertThrows(IOException.class,
+            () -> ColumnarTransactionReader.open(file));
+    }
+
+    private static void write(Path file, List<TransactionExportRow> rows,
+        int rowGroupSize) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             ColumnarTransactionWriter writer =
+                 new ColumnarTransactionWriter(out, rowGroupSize)) {
+            for (TransactionExportRow row : rows) {
+                writer.write(row);
+            }
+        }
+    }
+
+    private static TransactionExportRow row(Long id, long accountId,
+        LocalDateTime transactionAt, TransactionType transactionType,
+        TransactionResultType resultType, Long amount, Long balanceSnapshot) {
+        return TransactionExportRow.builder()
+            .id(id)
+            .accountId(accountId)
+            .transactionType(transactionType)
+            .transactionResultType(resultType)
+            .amount(amount)
+            .balanceSnapshot(balanceSnapshot)
+            .transactionAt(transactionAt)
+            .build();
+    }
+}
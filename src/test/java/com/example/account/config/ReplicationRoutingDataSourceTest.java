@@ -0,0 +1,150 @@
+package com.example.account.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.service.ReadYourWritesTracker;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * H2 두 개를 primary / 복제본으로 두고 트랜잭션 종류, 복제 지연, 최근 쓰기에 따라
+ * 어느 쪽에서 읽는지 확인한다. 복제는 테스트가 복제본의 heartbeat 를 직접 써서 흉내 낸다.
+ */
+class ReplicationRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor replicaLagMonitor;
+    private ReadYourWritesTracker readYourWritesTracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        primary = h2("routing-primary");
+        replica = h2("routing-replica");
+        createTables(primary, "primary");
+        createTables(replica, "replica");
+
+        ReplicaProperties replicaProperties = new ReplicaProperties();
+        replicaProperties.setEnabled(true);
+        replicaLagMonitor = new ReplicaLagMonitor(primary, replica,
+            replicaProperties);
+        readYourWritesTracker = new ReadYourWritesTracker(replicaProperties);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+            new ReplicationRoutingDataSource(primary, replica,
+                replicaLagMonitor, readYourWritesTracker));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager =
+            new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void readOnlyTransaction_readsFromReplica() {
+        //given
+        replicate(LocalDateTime.now());
+
+        //when
+        replicaLagMonitor.check();
+
+        //then
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        assertEquals("replica", readOnlyTransaction.execute(
+            status -> currentNode()));
+        assertEquals("primary", readWriteTransaction.execute(
+            status -> currentNode()));
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    public void laggingReplica_readsFromPrimary() {
+        //given
+        replicate(LocalDateTime.now().minusMinutes(1));
+
+        //when
+        replicaLagMonitor.check();
+
+        //then
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals("primary", readOnlyTransaction.execute(
+            status -> currentNode()));
+    }
+
+    @Test
+    public void missingHeartbeat_readsFromPrimary() {
+        //given
+        //when
+        replicaLagMonitor.check();
+
+        //then
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals("primary", readOnlyTransaction.execute(
+            status -> currentNode()));
+    }
+
+    @Test
+    public void recentWrite_pinsSameUserToPrimary() {
+        //given
+        replicate(LocalDateTime.now());
+        replicaLagMonitor.check();
+        readYourWritesTracker.recordUserWrite(1L);
+
+        //when
+        String writer = readOnlyTransaction.execute(status -> {
+            readYourWritesTracker.pinIfUserWritten(1L);
+            return currentNode();
+        });
+        String otherUser = readOnlyTransaction.execute(status -> {
+            readYourWritesTracker.pinIfUserWritten(2L);
+            return currentNode();
+        });
+
+        //then
+        assertEquals("primary", writer);
+        assertEquals("replica", otherUser);
+        assertFalse(readYourWritesTracker.isPinnedToPrimary());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node",
+            String.class);
+    }
+
+    private void replicate(LocalDateTime beatAt) {
+        new JdbcTemplate(replica).update(
+            "insert into replication_heartbeat(id, beat_at) values (1, ?)",
+            Timestamp.valueOf(beatAt));
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        return dataSource;
+    }
+
+    private static void createTables(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists node");
+        jdbcTemplate.execute("drop table if exists replication_heartbeat");
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.execute("create table replication_heartbeat "
+            + "(id bigint primary key, beat_at timestamp)");
+        jdbcTemplate.update("insert into node(name) values (?)", name);
+    }
+}
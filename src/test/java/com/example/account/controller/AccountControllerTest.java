@@ -12,6 +12,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.example.account.domain.Account;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CreateAccount.Request;
 import com.example.account.dto.DeleteAccount;
 import com.example.account.service.AccountService;
@@ -89,23 +90,23 @@ class AccountControllerTest {
     @Test
     public void successGetAccountByUserId() throws Exception {
         //given
-        List<AccountDto> accountDtos =
+        List<AccountInfo> accountInfos =
             Arrays.asList(
-                AccountDto.builder()
+                AccountInfo.builder()
                     .accountNumber("1234567890")
                     .balance(1000L)
                     .build(),
-                AccountDto.builder()
+                AccountInfo.builder()
                     .accountNumber("1111111111")
                     .balance(2000L)
                     .build(),
-                AccountDto.builder()
+                AccountInfo.builder()
                     .accountNumber("2222222222")
                     .balance(3000L)
                     .build()
             );
-        given(accountService.getAccountByUserId(anyLong()))
-            .willReturn(accountDtos);
+        given(accountService.getAccountInfosByUserId(anyLong()))
+            .willReturn(accountInfos);
 
         //when
         //then
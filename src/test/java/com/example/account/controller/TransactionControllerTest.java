@@ -1,8 +1,11 @@
 package com.example.account.controller;
 
 import static com.example.account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -11,13 +14,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.account.config.BalanceProperties;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.dto.TransactionDto;
 import com.example.account.dto.UseBalance;
+import com.example.account.service.BalanceShardService;
+import com.example.account.service.TransactionResponseCache;
 import com.example.account.service.TransactionService;
+import com.example.account.service.UseBalanceBatcher;
 import com.example.account.type.TransactionResultType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -30,6 +41,18 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private UseBalanceBatcher useBalanceBatcher;
+
+    @MockBean
+    private BalanceProperties balanceProperties;
+
+    @MockBean
+    private BalanceShardService balanceShardService;
+
+    @MockBean
+    private TransactionResponseCache transactionResponseCache;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -96,15 +119,16 @@ class TransactionControllerTest {
     @Test
     public void successQueryTransaction() throws Exception {
         //given
-        given(transactionService.queryTransaction(anyString()))
-            .willReturn(TransactionDto.builder()
-                .accountNumber("0987654321")
-                .transactionType(USE)
-                .transactionAt(LocalDateTime.now())
-                .amount(12345L)
-                .transactionId("transactionId")
-                .transactionResultType(TransactionResultType.S)
-                .build());
+        given(transactionResponseCache.get(eq("12345"), any()))
+            .willReturn(objectMapper.writeValueAsBytes(
+                QueryTransactionResponse.builder()
+                    .accountNumber("0987654321")
+                    .transactionType(USE)
+                    .transactionAt(LocalDateTime.now())
+                    .amount(12345L)
+                    .transactionId("transactionId")
+                    .transactionResultType(TransactionResultType.S)
+                    .build()));
 
         //when
         //then
@@ -117,4 +141,39 @@ class TransactionControllerTest {
             .andExpect(jsonPath("$.amount").value(12345))
             .andExpect(jsonPath("$.transactionType").value("USE"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void successGetTransactionHistory() throws Exception {
+        //given
+        given(transactionService.getTransactionHistory(eq("1234567890"),
+            isNull(), eq(2), eq(USE), isNull()))
+            .willReturn(TransactionHistoryResponse.builder()
+                .transactions(Arrays.asList(
+                    TransactionHistoryItem.builder()
+                        .id(2L)
+                        .transactionId("transactionId2")
+                        .transactionType(USE)
+                        .amount(200L)
+                        .build(),
+                    TransactionHistoryItem.builder()
+                        .id(1L)
+                        .transactionId("transactionId1")
+                        .transactionType(USE)
+                        .amount(100L)
+                        .build()))
+                .nextCursor("nextCursor")
+                .build());
+
+        //when
+        //then
+        mockMvc.perform(get("/account/1234567890/transactions"
+                + "?size=2&transaction_type=USE"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions[0].transactionId")
+                .value("transactionId2"))
+            .andExpect(jsonPath("$.transactions[0].id").doesNotExist())
+            .andExpect(jsonPath("$.transactions[1].amount").value(100))
+            .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.account.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.account.dto.ExportResult;
+import com.example.account.exception.AccountException;
+import com.example.account.service.TransactionExportService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(TransactionExportController.class)
+class TransactionExportControllerTest {
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void successExportCsv() throws Exception {
+        //given
+        given(transactionExportService.export(
+            eq(LocalDateTime.of(2022, 9, 1, 0, 0)),
+            eq(LocalDateTime.of(2022, 9, 2, 0, 0)),
+            eq(ExportFormat.CSV), any()))
+            .willAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(3);
+                out.write("header\nrow\n".getBytes(StandardCharsets.UTF_8));
+                return new ExportResult(1, 1);
+            });
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/transaction/export"
+                + "?from=2022-09-01T00:00:00&to=2022-09-02T00:00:00"
+                + "&format=CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv"))
+            .andExpect(content().string("header\nrow\n"));
+    }
+
+    @Test
+    public void failExport_invalidRange() throws Exception {
+        //given
+        willThrow(new AccountException(ErrorCode.INVALID_REQUEST))
+            .given(transactionExportService).validateRange(any(), any());
+
+        //when
+        //then
+        mockMvc.perform(get("/transaction/export"
+                + "?from=2022-09-02T00:00:00&to=2022-09-01T00:00:00"))
+            .andDo(print())
+            .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+}
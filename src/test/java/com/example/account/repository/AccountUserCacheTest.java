@@ -0,0 +1,109 @@
+package com.example.account.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.config.CacheConfig;
+import com.example.account.domain.AccountUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * AccountUserRepository.findById 가 캐시에서 응답하고, 저장하면 캐시에서 빠지는지 확인한다.
+ */
+@SpringBootTest
+class AccountUserCacheTest {
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        cache = cacheManager.getCache(CacheConfig.ACCOUNT_USER);
+        cache.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void findById_secondLookupFromCache() {
+        //given
+        double hits = cacheGets("hit");
+
+        //when
+        AccountUser first = accountUserRepository.findById(1L).get();
+        AccountUser second = accountUserRepository.findById(1L).get();
+
+        //then
+        assertSame(first, second);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNotNull(cache.get(1L));
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    public void findById_unknownUserNotCached() {
+        //given
+        //when
+        boolean found = accountUserRepository.findById(999L).isPresent();
+
+        //then
+        assertFalse(found);
+        assertNull(cache.get(999L));
+    }
+
+    @Test
+    public void save_evictsCachedUser() {
+        //given
+        AccountUser user = accountUserRepository.findById(2L).get();
+
+        //when
+        accountUserRepository.save(user);
+
+        //then
+        assertNull(cache.get(2L));
+        assertTrue(accountUserRepository.findById(2L).isPresent());
+        assertNotNull(cache.get(2L));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+            .tag("cache", CacheConfig.ACCOUNT_USER)
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.account.repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * H2 의 QUERY_STATISTICS 로 실제 실행된 SQL 을 모으고 EXPLAIN 으로 실행 계획을 확인하는 테스트 도구.
+ */
+public class H2QueryPlans {
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public H2QueryPlans(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * action 이 실행한 select 문을 돌려준다. (다른 스레드가 같은 시간에 실행한 SQL 도 섞일 수 있다)
+     */
+    public List<String> recordSelects(Runnable action) {
+        // 끄면 쌓인 통계가 지워진다.
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            action.run();
+            return jdbcTemplate.queryForList(
+                    "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS",
+                    String.class)
+                .stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT)
+                    .startsWith("select"))
+                .filter(sql -> !sql.toUpperCase(Locale.ROOT)
+                    .contains("INFORMATION_SCHEMA"))
+                .collect(Collectors.toList());
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+
+    /**
+     * 바인딩 파라미터는 모두 null 로 채워 실행 계획만 구한다.
+     */
+    public String explain(String sql) {
+        Object[] args = new Object[(int) sql.chars()
+            .filter(c -> c == '?')
+            .count()];
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class,
+            args);
+    }
+
+    public void assertUsesIndex(String sql) {
+        String plan = explain(sql);
+        if (plan.contains(TABLE_SCAN)) {
+            throw new AssertionError(
+                "Query does not use an index.\nsql : " + sql
+                    + "\nplan : " + plan);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.account.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.type.TransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 잔액 사용/취소 경로에서 쓰는 조회가 인덱스를 타는지 H2 EXPLAIN 으로 확인한다.
+ */
+@SpringBootTest
+class RepositoryIndexTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private H2QueryPlans queryPlans;
+
+    @BeforeEach
+    public void setUp() {
+        queryPlans = new H2QueryPlans(jdbcTemplate);
+    }
+
+    @Test
+    public void findByAccountNumber_usesIndex() {
+        assertAllUseIndex(queryPlans.recordSelects(
+            () -> accountRepository.findByAccountNumber("1000000000")));
+    }
+
+    @Test
+    public void findByAccountUser_usesIndex() {
+        AccountUser user = accountUserRepository.findById(1L).get();
+
+        assertAllUseIndex(queryPlans.recordSelects(
+            () -> accountRepository.findByAccountUser(user)));
+    }
+
+    @Test
+    public void countAccountByAccountUser_usesIndex() {
+        AccountUser user = accountUserRepository.findById(1L).get();
+
+        assertAllUseIndex(queryPlans.recordSelects(
+            () -> accountRepository.countAccountByAccountUser(user)));
+    }
+
+    @Test
+    public void findByTransactionId_usesIndex() {
+        assertAllUseIndex(queryPlans.recordSelects(
+            () -> transactionRepository.findByTransactionId(
+                "00000000000000000000000000000000")));
+    }
+
+    @Test
+    public void findHistory_usesIndex() {
+        assertAllUseIndex(queryPlans.recordSelects(
+            () -> transactionRepository.findHistory(1L, TransactionType.USE,
+                null, PageRequest.of(0, 20))));
+    }
+
+    @Test
+    public void findHistoryAfter_usesIndex() {
+        assertAllUseIndex(queryPlans.recordSelects(
+            () -> transactionRepository.findHistoryAfter(1L,
+                LocalDateTime.now(), 100L, null, null,
+                PageRequest.of(0, 20))));
+    }
+
+    private void assertAllUseIndex(List<String> selects) {
+        assertFalse(selects.isEmpty());
+        selects.forEach(queryPlans::assertUsesIndex);
+    }
+}
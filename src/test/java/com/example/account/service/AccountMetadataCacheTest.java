@@ -0,0 +1,93 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.account.config.CacheConfig;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * 계좌 생성/해지 시 캐시가 새 값으로 바뀌고, 다른 서버의 무효화 알림을 받으면 캐시에서 빠지는지 확인한다.
+ */
+@SpringBootTest
+class AccountMetadataCacheTest {
+
+    private static final long USER_ID = 2L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountMetadataCache accountMetadataCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = cacheManager.getCache(CacheConfig.ACCOUNT_METADATA);
+    }
+
+    @Test
+    public void createAndDeleteAccount_writeThrough() {
+        //given
+        AccountDto created = accountService.createAccount(USER_ID, 0L);
+        String accountNumber = created.getAccountNumber();
+        AccountMetadata afterCreate = cache.get(accountNumber,
+            AccountMetadata.class);
+
+        //when
+        accountService.deleteAccount(USER_ID, accountNumber);
+
+        //then
+        assertNotNull(afterCreate);
+        assertEquals(AccountStatus.IN_USE, afterCreate.getAccountStatus());
+        assertEquals(USER_ID, afterCreate.getAccountUserId());
+        assertEquals(AccountStatus.UNREGISTERED,
+            cache.get(accountNumber, AccountMetadata.class)
+                .getAccountStatus());
+        assertEquals(AccountStatus.UNREGISTERED,
+            accountMetadataCache.get(accountNumber).get().getAccountStatus());
+    }
+
+    @Test
+    public void invalidationFromOtherNode_evicts() throws Exception {
+        //given
+        AccountDto created = accountService.createAccount(USER_ID, 0L);
+        String accountNumber = created.getAccountNumber();
+        assertNotNull(cache.get(accountNumber));
+
+        //when
+        redissonClient.getTopic(AccountMetadataCache.INVALIDATION_TOPIC,
+                StringCodec.INSTANCE)
+            .publish("other-node:" + accountNumber);
+
+        //then
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (cache.get(accountNumber) != null
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+        }
+        assertNull(cache.get(accountNumber));
+        assertEquals(created.getUserId(),
+            accountMetadataCache.get(accountNumber).get().getAccountUserId());
+
+        accountService.deleteAccount(USER_ID, accountNumber);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.account.config.AccountNumberProperties;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 커넥션 풀(기본 10개)보다 많은 스레드가 동시에 계좌를 만들어도, 번호 구간 예약이 커넥션을 기다리며
+ * 멈추지 않고 계좌번호가 겹치지 않는지 실제 DB 로 확인한다. 구간 크기를 1 로 두어 계좌마다 예약한다.
+ * 계좌번호 unique 제약이 있으므로 중복이 생기면 저장 단계에서 실패한다.
+ */
+@SpringBootTest
+class AccountNumberAllocationTest {
+
+    private static final int THREADS = 32;
+    private static final int ACCOUNTS_PER_THREAD = 10;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountNumberProperties accountNumberProperties;
+
+    private final Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+    private final List<AccountUser> users = new ArrayList<>();
+    private int blockSize;
+
+    @BeforeEach
+    public void setUp() {
+        blockSize = accountNumberProperties.getBlockSize();
+        accountNumberProperties.setBlockSize(1);
+        // 사용자당 계좌 수 제한에 걸리지 않도록 스레드마다 사용자를 만든다.
+        for (int i = 0; i < THREADS; i++) {
+            users.add(accountUserRepository.save(AccountUser.builder()
+                .name("allocation-" + i)
+                .build()));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        accountNumberProperties.setBlockSize(blockSize);
+        accountNumbers.forEach(accountNumber -> accountRepository
+            .findByAccountNumber(accountNumber)
+            .ifPresent(accountRepository::delete));
+        users.forEach(accountUserRepository::delete);
+    }
+
+    @Test
+    public void createAccountsConcurrently_uniqueAccountNumbers()
+        throws Exception {
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (AccountUser user : users) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < ACCOUNTS_PER_THREAD; j++) {
+                    AccountDto account = accountService.createAccount(
+                        user.getId(), 0L);
+                    accountNumbers.add(account.getAccountNumber());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            // 커넥션을 서로 기다리며 멈추면 여기서 시간이 초과된다.
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(THREADS * ACCOUNTS_PER_THREAD, accountNumbers.size());
+        assertEquals(THREADS * ACCOUNTS_PER_THREAD, accountNumbers.stream()
+            .filter(accountNumber -> accountNumber.length() == 10)
+            .count());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.example.account.config.AccountNumberProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+
+    @Mock
+    private AccountNumberSequenceService accountNumberSequenceService;
+
+    private AccountNumberProperties accountNumberProperties;
+
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @BeforeEach
+    public void setUp() {
+        accountNumberProperties = new AccountNumberProperties();
+        accountNumberProperties.setBlockSize(10);
+        accountNumberAllocator = new AccountNumberAllocator(
+            accountNumberSequenceService, accountNumberProperties);
+    }
+
+    @Test
+    public void allocateFromReservedBlock() {
+        //given
+        given(accountNumberSequenceService.reserve(10))
+            .willReturn(1000000000L, 1000000100L);
+
+        //when
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            accountNumbers.add(accountNumberAllocator.allocate());
+        }
+
+        //then
+        verify(accountNumberSequenceService, times(2)).reserve(10);
+        assertEquals("1000000000", accountNumbers.get(0));
+        assertEquals("1000000009", accountNumbers.get(9));
+        assertEquals("1000000100", accountNumbers.get(10));
+    }
+
+    @Test
+    public void allocateBeyondIntRange() {
+        //given
+        given(accountNumberSequenceService.reserve(10))
+            .willReturn(9999999999L);
+
+        //when
+        String accountNumber = accountNumberAllocator.allocate();
+
+        //then
+        assertEquals("9999999999", accountNumber);
+    }
+
+    @Test
+    public void rejectBeyondTenDigits() {
+        //given
+        given(accountNumberSequenceService.reserve(10))
+            .willReturn(9999999999L);
+        accountNumberAllocator.allocate();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountNumberAllocator.allocate());
+        assertThrows(AccountException.class,
+            () -> accountNumberAllocator.allocate());
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED,
+            exception.getErrorCode());
+        verify(accountNumberSequenceService, times(1)).reserve(10);
+    }
+
+    @Test
+    public void allocateConcurrently_noDuplicates() throws Exception {
+        //given
+        AtomicLong sequence = new AtomicLong(1000000000L);
+        given(accountNumberSequenceService.reserve(anyInt()))
+            .willAnswer(invocation -> sequence.getAndAdd(
+                invocation.<Integer>getArgument(0)));
+        int threads = 8;
+        int perThread = 1000;
+
+        //when
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    accountNumbers.add(accountNumberAllocator.allocate());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(threads * perThread, accountNumbers.size());
+        // 구간이 떨어진 순간 여러 스레드가 함께 예약할 수 있지만, 남는 구간은 다음에 쓴다.
+        verify(accountNumberSequenceService, atLeast(threads * perThread / 10))
+            .reserve(10);
+        verify(accountNumberSequenceService,
+            atMost(threads * perThread / 10 + threads)).reserve(10);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AccountPartitionExecutorTest {
+
+    private static final String ACCOUNT_NUMBER = "1000000000";
+    private static final long WAIT_MILLIS = 5_000L;
+
+    private AccountPartitionExecutor accountPartitionExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        BalanceProperties balanceProperties = new BalanceProperties();
+        balanceProperties.getPartition().setCount(1);
+        accountPartitionExecutor = new AccountPartitionExecutor(
+            balanceProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        accountPartitionExecutor.shutdown();
+    }
+
+    @Test
+    public void runSameAccountOneAtATimeOnOneThread() throws Exception {
+        //given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 8; i++) {
+            callers.add(CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 25; j++) {
+                    execute(() -> {
+                        maxRunning.accumulateAndGet(
+                            running.incrementAndGet(), Math::max);
+                        threadNames.add(Thread.currentThread().getName());
+                        running.decrementAndGet();
+                        return null;
+                    }, WAIT_MILLIS);
+                }
+            }));
+        }
+        CompletableFuture.allOf(callers.toArray(new CompletableFuture[0]))
+            .get(30, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(1, maxRunning.get());
+        assertEquals(1, threadNames.size());
+    }
+
+    @Test
+    public void rethrowOriginalException() {
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountPartitionExecutor.execute(ACCOUNT_NUMBER, () -> {
+                throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }, WAIT_MILLIS));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+            exception.getErrorCode());
+    }
+
+    @Test
+    public void notStartedWithinWait_failAndNeverRun() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> occupied = occupyPartition(release);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        //when
+        long startedAt = System.nanoTime();
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountPartitionExecutor.execute(ACCOUNT_NUMBER, () -> {
+                ran.set(true);
+                return null;
+            }, 50L));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(
+            System.nanoTime() - startedAt);
+        release.countDown();
+        occupied.get(5, TimeUnit.SECONDS);
+        // 파티션이 뒤에 들어온 명령까지 비운 뒤에도 포기한 명령은 실행되지 않았다.
+        accountPartitionExecutor.execute(ACCOUNT_NUMBER, () -> null,
+            WAIT_MILLIS);
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            exception.getErrorCode());
+        assertTrue(elapsedMillis < 1000L);
+        assertFalse(ran.get());
+    }
+
+    /**
+     * 파티션의 유일한 스레드가 release 될 때까지 다른 명령을 실행하지 못하게 한다.
+     */
+    private CompletableFuture<Void> occupyPartition(CountDownLatch release)
+        throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Void> occupied = CompletableFuture.runAsync(
+            () -> execute(() -> {
+                running.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }, WAIT_MILLIS));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return occupied;
+    }
+
+    private void execute(BalanceCommand<Void> command, long waitMillis) {
+        try {
+            accountPartitionExecutor.execute(ACCOUNT_NUMBER, command,
+                waitMillis);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
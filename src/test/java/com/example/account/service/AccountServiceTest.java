@@ -6,27 +6,38 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.example.account.config.BalanceProperties;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
+import com.example.account.dto.AccountMetadata;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceSlotRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class AccountServiceTest {
@@ -37,9 +48,42 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
-    @InjectMocks
+    @Mock
+    private AccountBalanceSlotRepository accountBalanceSlotRepository;
+
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Spy
+    private AccountBalanceReader accountBalanceReader =
+        new AccountBalanceReader(new BalanceProperties(), null);
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private AccountMetadataCache accountMetadataCache;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(
+        mock(PlatformTransactionManager.class));
+
     private AccountService accountService;
 
+    /**
+     * NegativeLookupCache 가 위의 mock 으로 사용자와 계좌를 찾도록 직접 만든다.
+     */
+    @BeforeEach
+    public void setUp() {
+        NegativeLookupCache negativeLookupCache = new NegativeLookupCache(
+            new ConcurrentMapCacheManager(), new SimpleMeterRegistry(),
+            accountUserRepository, accountMetadataCache);
+        accountService = new AccountService(accountRepository,
+            accountBalanceSlotRepository, accountBalanceReader, accountNumberAllocator,
+            readYourWritesTracker, accountMetadataCache, negativeLookupCache,
+            transactionTemplate);
+    }
+
     @Test
     public void createAccountSuccess() throws Exception {
         //given
@@ -49,10 +93,8 @@ class AccountServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-            .willReturn(Optional.of(Account.builder()
-                .accountNumber("1000000012")
-                .build()));
+        given(accountNumberAllocator.allocate())
+            .willReturn("1000000013");
         given(accountRepository.save(any()))
             .willReturn(Account.builder()
                 .accountUser(user)
@@ -79,8 +121,8 @@ class AccountServiceTest {
         user.setId(15L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-            .willReturn(Optional.empty());
+        given(accountNumberAllocator.allocate())
+            .willReturn("1000000000");
         given(accountRepository.save(any()))
             .willReturn(Account.builder()
                 .accountUser(user)
@@ -113,6 +155,24 @@ class AccountServiceTest {
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("최근에 없던 유저 - DB 조회 없이 계좌 생성 실패")
+    public void createAccount_UserNotFound_rememberedMiss() throws Exception {
+        //given
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.empty());
+        assertThrows(AccountException.class,
+            () -> accountService.createAccount(1L, 1000L));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountService.createAccount(1L, 1000L));
+
+        //then
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        verify(accountUserRepository, times(1)).findById(1L);
+    }
+
     @Test
     @DisplayName("유저 당 최대 계좌는 10개")
     public void createAccount_maxAccountIs10() throws Exception {
@@ -144,14 +204,15 @@ class AccountServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(
-                Account.builder()
-                    .accountUser(user)
-                    .accountNumber("10000000012")
-                    .balance(0L)
-                    .build()
-            ));
+        Account account = Account.builder()
+            .accountUser(user)
+            .accountNumber("10000000012")
+            .balance(0L)
+            .build();
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
 
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(
             (Account.class));
@@ -193,7 +254,7 @@ class AccountServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
             .willReturn(Optional.empty());
 
         //when
@@ -205,6 +266,32 @@ class AccountServiceTest {
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("최근에 없던 계좌 - DB 조회 없이 계좌 해지 실패")
+    public void deleteAccountFailed_AccountNotFound_rememberedMiss()
+        throws Exception {
+        //given
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.of(user));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.empty());
+        assertThrows(AccountException.class,
+            () -> accountService.deleteAccount(1L, "1234567890"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountService.deleteAccount(1L, "1234567890")
+        );
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(accountMetadataCache, times(1)).get("1234567890");
+    }
+
     @Test
     @DisplayName("계좌 소유주 다름 - 계좌 해지 실패")
     public void deleteAccountFailed_userUnMatch() throws Exception {
@@ -219,13 +306,13 @@ class AccountServiceTest {
         harry.setId(13L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(pobi));
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(harry)
-                .balance(0L)
-                .accountNumber("1000000012")
-                .build()
-            ));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(
+                Account.builder()
+                    .accountUser(harry)
+                    .balance(0L)
+                    .accountNumber("1000000012")
+                    .build())));
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -234,6 +321,7 @@ class AccountServiceTest {
 
         //then
         assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        verify(accountRepository, never()).findById(any());
     }
 
     @Test
@@ -246,13 +334,15 @@ class AccountServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(user)
-                .balance(100L)
-                .accountNumber("1000000012")
-                .build()
-            ));
+        Account account = Account.builder()
+            .accountUser(user)
+            .balance(100L)
+            .accountNumber("1000000012")
+            .build();
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -273,14 +363,14 @@ class AccountServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(user)
-                .balance(100L)
-                .accountNumber("1000000012")
-                .accountStatus(AccountStatus.UNREGISTERED)
-                .build()
-            ));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(
+                Account.builder()
+                    .accountUser(user)
+                    .balance(100L)
+                    .accountNumber("1000000012")
+                    .accountStatus(AccountStatus.UNREGISTERED)
+                    .build())));
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -290,62 +380,57 @@ class AccountServiceTest {
         //then
         assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,
             exception.getErrorCode());
+        verify(accountRepository, never()).findById(any());
     }
 
     @Test
-    public void successGetAccountByUserId() throws Exception {
+    public void failedToGetAccounts() throws Exception {
         //given
-        AccountUser user = AccountUser.builder()
-            .name("Pobi")
-            .build();
-        user.setId(12L);
-        List<Account> accounts = Arrays.asList(
-            Account.builder()
-                .accountUser(user)
-                .accountNumber("1111111111")
-                .balance(1000L)
-                .build(),
-            Account.builder()
-                .accountUser(user)
-                .accountNumber("2222222222")
-                .balance(2000L)
-                .build(),
-            Account.builder()
-                .accountUser(user)
-                .accountNumber("3333333333")
-                .balance(3000L)
-                .build()
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountService.deleteAccount(1L, "1234567890")
         );
+
+        //then
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    public void successGetAccountInfosByUserId() throws Exception {
+        //given
         given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountUser(any()))
-            .willReturn(accounts);
+            .willReturn(Optional.of(AccountUser.builder()
+                .name("Pobi")
+                .build()));
+        given(accountRepository.findAccountInfosByUserId(anyLong()))
+            .willReturn(Arrays.asList(
+                new AccountInfo("1234567890", 1000L),
+                new AccountInfo("1111111111", 2000L)));
 
         //when
-        List<AccountDto> accountDtos = accountService.getAccountByUserId(
-            1L);
+        List<AccountInfo> accountInfos =
+            accountService.getAccountInfosByUserId(1L);
+
         //then
-        assertEquals(3, accountDtos.size());
-        assertEquals("1111111111", accountDtos.get(0).getAccountNumber());
-        assertEquals(1000, accountDtos.get(0).getBalance());
-        assertEquals("2222222222", accountDtos.get(1).getAccountNumber());
-        assertEquals(2000, accountDtos.get(1).getBalance());
-        assertEquals("3333333333", accountDtos.get(2).getAccountNumber());
-        assertEquals(3000, accountDtos.get(2).getBalance());
+        assertEquals(2, accountInfos.size());
+        assertEquals("1111111111", accountInfos.get(1).getAccountNumber());
+        assertEquals(2000L, accountInfos.get(1).getBalance());
     }
 
     @Test
-    public void failedToGetAccounts() throws Exception {
+    public void failedToGetAccountInfos() throws Exception {
         //given
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.empty());
 
         //when
         AccountException exception = assertThrows(AccountException.class,
-            () -> accountService.deleteAccount(1L, "1234567890")
-        );
+            () -> accountService.getAccountInfosByUserId(1L));
 
         //then
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+}
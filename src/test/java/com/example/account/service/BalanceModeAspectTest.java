@@ -0,0 +1,160 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.config.LockProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceModeAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    private BalanceProperties balanceProperties;
+
+    private AccountPartitionExecutor accountPartitionExecutor;
+
+    private BalanceModeAspect balanceModeAspect;
+
+    @BeforeEach
+    public void setUp() {
+        balanceProperties = new BalanceProperties();
+        balanceProperties.getOptimistic().setBackoffBase(Duration.ofMillis(1));
+        balanceProperties.getOptimistic().setBackoffMax(Duration.ofMillis(2));
+        balanceProperties.getPartition().setCount(1);
+        accountPartitionExecutor = new AccountPartitionExecutor(
+            balanceProperties);
+
+        LockProperties.Policy use = new LockProperties.Policy();
+        use.setWaitTime(Duration.ofMillis(100));
+        LockProperties lockProperties = new LockProperties();
+        lockProperties.getPolicies().put(LockPolicyResolver.USE_POLICY, use);
+
+        balanceModeAspect = new BalanceModeAspect(balanceProperties,
+            new OptimisticRetryExecutor(balanceProperties,
+                new SimpleMeterRegistry()),
+            accountPartitionExecutor,
+            new LockPolicyResolver(lockProperties, new MockEnvironment()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        accountPartitionExecutor.shutdown();
+    }
+
+    @Test
+    public void optimisticMode_retryOnlyServiceCall() throws Throwable {
+        //given
+        balanceProperties.setMode(BalanceMode.OPTIMISTIC);
+        given(proceedingJoinPoint.proceed())
+            .willThrow(new ObjectOptimisticLockingFailureException(
+                "Account", 1L))
+            .willReturn("ok");
+
+        //when
+        Object result = balanceModeAspect.aroundUseBalance(
+            proceedingJoinPoint, "1000000000");
+
+        //then
+        assertEquals("ok", result);
+        verify(proceedingJoinPoint, times(2)).proceed();
+    }
+
+    @Test
+    public void lockedMode_proceedOnce() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn("ok");
+
+        //when
+        Object result = balanceModeAspect.aroundUseBalance(
+            proceedingJoinPoint, "1000000000");
+
+        //then
+        assertEquals("ok", result);
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @Test
+    public void partitionedMode_runServiceCallOnPartition() throws Throwable {
+        //given
+        balanceProperties.setMode(BalanceMode.PARTITIONED);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        given(proceedingJoinPoint.proceed()).willAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            return "ok";
+        });
+
+        //when
+        Object result = balanceModeAspect.aroundUseBalance(
+            proceedingJoinPoint, "1000000000");
+
+        //then
+        assertEquals("ok", result);
+        assertNotEquals(Thread.currentThread().getName(), threadName.get());
+    }
+
+    @Test
+    public void partitionedMode_giveUpAfterPolicyWaitTime() throws Throwable {
+        //given
+        balanceProperties.setMode(BalanceMode.PARTITIONED);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Object> occupied = CompletableFuture.supplyAsync(
+            () -> {
+                try {
+                    return accountPartitionExecutor.execute("1000000000",
+                        () -> {
+                            running.countDown();
+                            return release.await(5, TimeUnit.SECONDS);
+                        }, 5_000L);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        //when
+        long startedAt = System.nanoTime();
+        AccountException exception = assertThrows(AccountException.class,
+            () -> balanceModeAspect.aroundUseBalance(proceedingJoinPoint,
+                "1000000000"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(
+            System.nanoTime() - startedAt);
+        release.countDown();
+        occupied.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            exception.getErrorCode());
+        assertTrue(elapsedMillis < 1000L);
+        // 대기열에서 빠진 명령은 파티션이 비어도 실행되지 않는다.
+        accountPartitionExecutor.execute("1000000000", () -> null, 1_000L);
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+}
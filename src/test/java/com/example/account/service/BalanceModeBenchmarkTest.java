@@ -0,0 +1,141 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.dto.AccountDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.BalanceMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 같은 계좌 하나에 요청을 몰아서 LOCKED 와 CONDITIONAL_UPDATE 모드의 처리량을 비교한다.
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BalanceModeBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 200;
+    private static final long USE_AMOUNT = 10L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LockService lockService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceProperties balanceProperties;
+
+    @AfterEach
+    public void tearDown() {
+        balanceProperties.setMode(BalanceMode.LOCKED);
+    }
+
+    @Test
+    public void lockedVersusConditionalUpdate() throws Exception {
+        long initialBalance = 2 * THREADS * REQUESTS_PER_THREAD * USE_AMOUNT;
+        AccountDto lockedAccount = accountService.createAccount(1L,
+            initialBalance);
+        AccountDto conditionalAccount = accountService.createAccount(1L,
+            initialBalance);
+
+        balanceProperties.setMode(BalanceMode.LOCKED);
+        Result locked = run(() -> {
+            String accountNumber = lockedAccount.getAccountNumber();
+            lockService.lock(accountNumber);
+            try {
+                transactionService.useBalance(1L, accountNumber, USE_AMOUNT);
+            } finally {
+                lockService.unlock(accountNumber);
+            }
+            return null;
+        });
+
+        balanceProperties.setMode(BalanceMode.CONDITIONAL_UPDATE);
+        Result conditional = run(() -> {
+            transactionService.useBalance(1L,
+                conditionalAccount.getAccountNumber(), USE_AMOUNT);
+            return null;
+        });
+
+        System.out.printf("LOCKED             : %d ok, %d rejected, %.1f ops/s%n",
+            locked.succeeded, locked.rejected, locked.opsPerSecond());
+        System.out.printf("CONDITIONAL_UPDATE : %d ok, %d rejected, %.1f ops/s%n",
+            conditional.succeeded, conditional.rejected,
+            conditional.opsPerSecond());
+
+        assertEquals(initialBalance - conditional.succeeded * USE_AMOUNT,
+            accountRepository.findByAccountNumber(
+                conditionalAccount.getAccountNumber()).get().getBalance());
+    }
+
+    private Result run(Callable<Void> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                int rejected = 0;
+                for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                    try {
+                        operation.call();
+                    } catch (AccountException e) {
+                        // 락 대기 시간 초과 등으로 거절된 요청
+                        rejected++;
+                    }
+                }
+                return rejected;
+            }));
+        }
+
+        int rejected = 0;
+        for (Future<Integer> future : futures) {
+            rejected += future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        int total = THREADS * REQUESTS_PER_THREAD;
+        return new Result(total - rejected, rejected, elapsedNanos);
+    }
+
+    private static class Result {
+
+        private final int succeeded;
+        private final int rejected;
+        private final long elapsedNanos;
+
+        private Result(int succeeded, int rejected, long elapsedNanos) {
+            this.succeeded = succeeded;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * 거절된 요청은 빼고 성공한 요청만으로 센 처리량
+         */
+        private double opsPerSecond() {
+            return succeeded / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
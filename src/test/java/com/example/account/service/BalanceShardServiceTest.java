@@ -0,0 +1,116 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceSlot;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceSlotRepository;
+import com.example.account.repository.AccountRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 칸으로 나뉜 계좌에 사용/취소를 동시에 몰아도 전체 잔액이 성공한 거래와 맞는지 확인한다.
+ */
+@SpringBootTest
+class BalanceShardServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 20;
+    private static final long INITIAL_BALANCE = 8_000L;
+    private static final long USE_AMOUNT = 300L;
+
+    @Autowired
+    private BalanceShardService balanceShardService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountBalanceReader accountBalanceReader;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository accountBalanceSlotRepository;
+
+    @Autowired
+    private BalanceProperties balanceProperties;
+
+    private String accountNumber;
+
+    @AfterEach
+    public void tearDown() {
+        balanceProperties.getShard().getAccounts().remove(accountNumber);
+    }
+
+    @Test
+    public void concurrentUseAndCancel_keepTotalBalance() throws Exception {
+        //given
+        AccountDto accountDto = accountService.createAccount(2L,
+            INITIAL_BALANCE);
+        accountNumber = accountDto.getAccountNumber();
+        balanceProperties.getShard().getAccounts().add(accountNumber);
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                long delta = 0;
+                for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                    TransactionDto used;
+                    try {
+                        used = balanceShardService.useBalance(2L,
+                            accountNumber, USE_AMOUNT);
+                    } catch (AccountException e) {
+                        // 잔액 부족이나 락 대기 시간 초과로 거절된 요청
+                        continue;
+                    }
+                    delta -= USE_AMOUNT;
+                    if (j % 2 == 0) {
+                        try {
+                            balanceShardService.cancelBalance(
+                                used.getTransactionId(), accountNumber,
+                                USE_AMOUNT);
+                            delta += USE_AMOUNT;
+                        } catch (AccountException e) {
+                            // 락 대기 시간 초과로 거절된 취소
+                        }
+                    }
+                }
+                return delta;
+            }));
+        }
+
+        long delta = 0;
+        for (Future<Long> future : futures) {
+            delta += future.get();
+        }
+        executor.shutdown();
+
+        //then
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+            .get();
+        List<AccountBalanceSlot> slots = accountBalanceSlotRepository
+            .findByAccountAccountNumberOrderBySlotNo(accountNumber);
+        assertEquals(0L, account.getBalance());
+        assertEquals(balanceProperties.getShard().getSlots(), slots.size());
+        assertTrue(slots.stream().allMatch(slot -> slot.getBalance() >= 0));
+        assertEquals(INITIAL_BALANCE + delta,
+            accountBalanceReader.totalBalance(account));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.example.account.config.PreLockValidationProperties;
+import com.example.account.domain.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+@ExtendWith(MockitoExtension.class)
+class LastKnownBalanceCacheTest {
+
+    private static final String ACCOUNT_NUMBER = "1000000012";
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic topic;
+
+    private LastKnownBalanceCache lastKnownBalanceCache;
+
+    @BeforeEach
+    public void setUp() {
+        given(redissonClient.getTopic(eq(LastKnownBalanceCache.RAISED_TOPIC),
+            any())).willReturn(topic);
+        lastKnownBalanceCache = new LastKnownBalanceCache(
+            new PreLockValidationProperties(), redissonClient);
+    }
+
+    @Test
+    public void keepsHigherVersion() {
+        //given
+        lastKnownBalanceCache.updateAfterCommit(account(3L, 700L), false);
+
+        //when
+        lastKnownBalanceCache.updateAfterCommit(account(2L, 900L), false);
+
+        //then
+        assertEquals(700L,
+            lastKnownBalanceCache.get(ACCOUNT_NUMBER).getAsLong());
+        verify(topic, never()).publish(anyString());
+    }
+
+    @Test
+    public void raised_publishesToOtherNodes() {
+        //given
+        //when
+        lastKnownBalanceCache.updateAfterCommit(account(4L, 1000L), true);
+
+        //then
+        assertEquals(1000L,
+            lastKnownBalanceCache.get(ACCOUNT_NUMBER).getAsLong());
+        verify(topic).publish(anyString());
+    }
+
+    @Test
+    public void raisedOnOtherNode_forgetsBalance() {
+        //given
+        lastKnownBalanceCache.updateAfterCommit(account(3L, 700L), false);
+
+        //when
+        lastKnownBalanceCache.onRaised("other-node:" + ACCOUNT_NUMBER);
+
+        //then
+        assertFalse(lastKnownBalanceCache.get(ACCOUNT_NUMBER).isPresent());
+    }
+
+    @Test
+    public void raiseOnOtherNode_forgetsBalanceBeforeCommitNotice() {
+        //given
+        LastKnownBalanceCache otherNode = new LastKnownBalanceCache(
+            new PreLockValidationProperties(), redissonClient);
+        lastKnownBalanceCache.updateAfterCommit(account(3L, 700L), false);
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(
+            String.class);
+
+        //when
+        // 다른 서버의 취소가 잔액을 늘리기 전에 보낸 알림만 닿고, 커밋 후의 알림은 아직 닿지 않았다.
+        otherNode.beforeRaise(ACCOUNT_NUMBER);
+        verify(topic).publish(messages.capture());
+        lastKnownBalanceCache.onRaised(messages.getValue());
+        otherNode.updateAfterCommit(account(4L, 1000L), true);
+
+        //then
+        assertFalse(lastKnownBalanceCache.get(ACCOUNT_NUMBER).isPresent());
+        assertEquals(1000L, otherNode.get(ACCOUNT_NUMBER).getAsLong());
+    }
+
+    private static Account account(Long version, Long balance) {
+        return Account.builder()
+            .accountNumber(ACCOUNT_NUMBER)
+            .balance(balance)
+            .version(version)
+            .build();
+    }
+}
@@ -2,13 +2,21 @@ package com.example.account.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.BalanceProperties;
 import com.example.account.dto.UseBalance;
 import com.example.account.dto.UseBalance.Request;
 import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.ErrorCode;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
@@ -16,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +33,24 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private LockPolicyResolver lockPolicyResolver;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private AccountLock accountLock;
+
+    @Spy
+    private BalanceProperties balanceProperties = new BalanceProperties();
+
+    @Mock
+    private AccountBalanceReader accountBalanceReader;
+
+    @Mock
+    private PreLockValidator preLockValidator;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -38,13 +62,17 @@ class LockAopAspectTest {
         ArgumentCaptor<String> unlockArgumentCaptor = ArgumentCaptor.forClass(
             String.class);
         UseBalance.Request request = new Request(123L, "1234", 1000L);
+        given(lockPolicyResolver.resolve(any()))
+            .willReturn(LockPolicy.DEFAULT);
 
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
         //then
-        verify(lockService, times(1)).lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1)).unlock(unlockArgumentCaptor.capture());
+        verify(lockService, times(1)).lock(lockArgumentCaptor.capture(),
+            eq(LockPolicy.DEFAULT));
+        verify(lockService, times(1)).unlock(unlockArgumentCaptor.capture(),
+            eq(LockPolicy.DEFAULT));
         assertEquals("1234", lockArgumentCaptor.getValue());
         assertEquals("1234", unlockArgumentCaptor.getValue());
     }
@@ -57,18 +85,57 @@ class LockAopAspectTest {
         ArgumentCaptor<String> unlockArgumentCaptor = ArgumentCaptor.forClass(
             String.class);
         UseBalance.Request request = new Request(123L, "54321", 1000L);
+        given(lockPolicyResolver.resolve(any()))
+            .willReturn(LockPolicy.DEFAULT);
         given(proceedingJoinPoint.proceed())
             .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
         //when
         assertThrows(AccountException.class,
-            () -> lockAopAspect.aroundMethod(proceedingJoinPoint, request)
+            () -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock,
+                request)
         );
 
         //then
-        verify(lockService, times(1)).lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1)).unlock(unlockArgumentCaptor.capture());
+        verify(lockService, times(1)).lock(lockArgumentCaptor.capture(),
+            eq(LockPolicy.DEFAULT));
+        verify(lockService, times(1)).unlock(unlockArgumentCaptor.capture(),
+            eq(LockPolicy.DEFAULT));
         assertEquals("54321", lockArgumentCaptor.getValue());
         assertEquals("54321", unlockArgumentCaptor.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void skipLock_conditionalUpdateMode() throws Throwable {
+        //given
+        balanceProperties.setMode(BalanceMode.CONDITIONAL_UPDATE);
+        UseBalance.Request request = new Request(123L, "1234", 1000L);
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, never()).lock(any(), any());
+        verify(lockService, never()).unlock(any(), any());
+    }
+
+    @Test
+    public void rejectedBeforeLock() throws Throwable {
+        //given
+        UseBalance.Request request = new Request(123L, "1234", 1000L);
+        willThrow(new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH))
+            .given(preLockValidator).validate(request);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock,
+                request));
+
+        //then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH,
+            exception.getErrorCode());
+        verify(lockService, never()).lock(any(), any());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.LockProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class LockPolicyResolverTest {
+
+    @AccountLock(policy = "use", tryLockTime = 1000L)
+    public void use() {
+    }
+
+    @AccountLock(tryLockTime = 2000L, leaseTime = 3000L, watchdog = true)
+    public void noOverride() {
+    }
+
+    @Test
+    public void applyOverride() throws Exception {
+        //given
+        LockProperties.Policy override = new LockProperties.Policy();
+        override.setWaitTime(Duration.ofMillis(300));
+        LockProperties lockProperties = new LockProperties();
+        lockProperties.getPolicies().put("use", override);
+        LockPolicyResolver resolver = new LockPolicyResolver(lockProperties,
+            new MockEnvironment());
+
+        //when
+        LockPolicy policy = resolver.resolve(annotationOf("use"));
+
+        //then
+        assertEquals(300L, policy.getWaitMillis());
+        assertEquals(15000L, policy.getLeaseMillis());
+        assertFalse(policy.isFair());
+    }
+
+    @Test
+    public void useAnnotationWithoutOverride() throws Exception {
+        //given
+        LockPolicyResolver resolver = new LockPolicyResolver(
+            new LockProperties(), new MockEnvironment());
+
+        //when
+        LockPolicy policy = resolver.resolve(annotationOf("noOverride"));
+
+        //then
+        assertEquals(2000L, policy.getWaitMillis());
+        assertEquals(3000L, policy.getLeaseMillis());
+        assertTrue(policy.isWatchdog());
+        assertEquals(-1L, policy.getRedisLeaseMillis());
+    }
+
+    @Test
+    public void reloadFromEnvironment() throws Exception {
+        //given
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("account.lock.policies.use.wait-time", "50ms")
+            .withProperty("account.lock.policies.use.fair", "true");
+        LockPolicyResolver resolver = new LockPolicyResolver(
+            new LockProperties(), environment);
+        assertEquals(1000L, resolver.resolve(annotationOf("use"))
+            .getWaitMillis());
+
+        //when
+        resolver.reload();
+        LockPolicy policy = resolver.resolve(annotationOf("use"));
+
+        //then
+        assertEquals(50L, policy.getWaitMillis());
+        assertTrue(policy.isFair());
+    }
+
+    @Test
+    public void resolveByName() {
+        //given
+        LockProperties.Policy override = new LockProperties.Policy();
+        override.setWaitTime(Duration.ofMillis(300));
+        LockProperties lockProperties = new LockProperties();
+        lockProperties.getPolicies().put("use", override);
+        LockPolicyResolver resolver = new LockPolicyResolver(lockProperties,
+            new MockEnvironment());
+
+        //when
+        LockPolicy policy = resolver.resolve("use");
+
+        //then
+        assertEquals(300L, policy.getWaitMillis());
+        assertEquals(LockPolicy.DEFAULT.getLeaseMillis(),
+            policy.getLeaseMillis());
+        assertEquals(LockPolicy.DEFAULT, resolver.resolve("unknown"));
+    }
+
+    private AccountLock annotationOf(String methodName) throws Exception {
+        return getClass().getMethod(methodName)
+            .getAnnotation(AccountLock.class);
+    }
+}
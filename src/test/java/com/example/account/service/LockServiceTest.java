@@ -5,16 +5,29 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.LockProperties;
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -25,9 +38,31 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
-    @InjectMocks
+    @Mock
+    private RFuture<Boolean> lockFuture;
+
+    @Mock
+    private RFuture<Void> unlockFuture;
+
+    private LockProperties lockProperties;
+
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private LockService lockService;
 
+    @BeforeEach
+    public void setUp() {
+        lockProperties = new LockProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        redisCircuitBreaker = new RedisCircuitBreaker(lockProperties,
+            meterRegistry);
+        lockService = new LockService(redissonClient,
+            new AccountLockStripes(lockProperties), lockProperties,
+            redisCircuitBreaker, meterRegistry);
+    }
+
     @Test
     public void successGetLock() throws Exception {
         //given
@@ -62,4 +97,220 @@ class LockServiceTest {
             exception.getErrorCode());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void twoTier_releaseRedisLockWithoutWaiters() throws Exception {
+        //given
+        lockProperties.setMode(LockMode.TWO_TIER);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(lockFuture);
+        given(lockFuture.get()).willReturn(true);
+        given(rLock.unlockAsync(anyLong())).willReturn(unlockFuture);
+
+        //when
+        lockService.lock("123");
+        lockService.unlock("123");
+
+        //then
+        verify(rLock, times(1)).tryLockAsync(anyLong(), anyLong(), any(),
+            anyLong());
+        verify(rLock, times(1)).unlockAsync(anyLong());
+    }
+
+    @Test
+    public void twoTier_failGetRedisLock() throws Exception {
+        //given
+        lockProperties.setMode(LockMode.TWO_TIER);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(lockFuture);
+        given(lockFuture.get()).willReturn(false);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> lockService.lock("123")
+        );
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            exception.getErrorCode());
+    }
+
+    @Test
+    public void twoTier_handOffRedisLockToLocalWaiter() throws Exception {
+        //given
+        lockProperties.setMode(LockMode.TWO_TIER);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(lockFuture);
+        given(lockFuture.get()).willReturn(true);
+        given(rLock.unlockAsync(anyLong())).willReturn(unlockFuture);
+
+        lockService.lock("123");
+        CountDownLatch waiterLocked = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            lockService.lock("123");
+            waiterLocked.countDown();
+            lockService.unlock("123");
+        });
+        waiter.start();
+        // waiter 가 stripe 에서 대기할 시간을 준다.
+        Thread.sleep(100L);
+
+        //when
+        lockService.unlock("123");
+
+        //then
+        assertTrue(waiterLocked.await(1, TimeUnit.SECONDS));
+        waiter.join(1000L);
+        verify(rLock, times(1)).tryLockAsync(anyLong(), anyLong(), any(),
+            anyLong());
+        verify(rLock, times(1)).unlockAsync(anyLong());
+    }
+
+    @Test
+    public void twoTier_interruptedWaiterStillOwnsHandedOffLock()
+        throws Exception {
+        //given
+        AccountLockStripes.Stripe stripe = new AccountLockStripes(
+            lockProperties).stripeFor("123");
+        assertTrue(stripe.tryLock(TimeUnit.SECONDS.toNanos(1)));
+        stripe.remoteAcquired("123", rLock, 0L);
+        CompletableFuture<Boolean> waiterLocked = new CompletableFuture<>();
+        CompletableFuture<Boolean> waiterInterrupted =
+            new CompletableFuture<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                waiterLocked.complete(
+                    stripe.tryLock(TimeUnit.SECONDS.toNanos(5)));
+                waiterInterrupted.complete(
+                    Thread.currentThread().isInterrupted());
+                if (stripe.isHeldByCurrentThread()) {
+                    stripe.remoteReleased();
+                    stripe.unlock();
+                }
+            } catch (InterruptedException e) {
+                waiterLocked.complete(false);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10L);
+        }
+
+        //when
+        // 넘겨준 직후 대기자가 깨어나기 전에 interrupt 한다.
+        synchronized (stripe) {
+            assertTrue(stripe.handOff(lockProperties.getMaxHandoffs()));
+            waiter.interrupt();
+        }
+
+        //then
+        assertTrue(waiterLocked.get(1, TimeUnit.SECONDS));
+        assertTrue(waiterInterrupted.get(1, TimeUnit.SECONDS));
+        waiter.join(1000L);
+        assertNull(stripe.getRemoteAccountNumber());
+    }
+
+    @Test
+    public void redisFailure_fallBackToLocalLock() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willThrow(new RedisConnectionException("connection refused"));
+        LockPolicy policy = LockPolicy.builder()
+            .waitMillis(50L)
+            .leaseMillis(15000L)
+            .build();
+
+        //when
+        lockService.lock("123", policy);
+
+        //then
+        // 락 없이 진행하지 않는다. 같은 서버의 다른 요청은 이 계좌 락을 기다리다 실패한다.
+        CompletableFuture<AccountException> other =
+            CompletableFuture.supplyAsync(() -> assertThrows(
+                AccountException.class,
+                () -> lockService.lock("123", policy)));
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            other.get(1, TimeUnit.SECONDS).getErrorCode());
+
+        lockService.unlock("123", policy);
+        verify(rLock, never()).unlock();
+        assertEquals(2.0,
+            meterRegistry.counter("account.lock.fallback").count());
+    }
+
+    @Test
+    public void redisFailures_openCircuitAndSkipRedis() throws Exception {
+        //given
+        lockProperties.getCircuitBreaker().setFailureThreshold(2);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willThrow(new RedisConnectionException("connection refused"));
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            lockService.lock("123");
+            lockService.unlock("123");
+        }
+
+        //then
+        verify(rLock, times(2)).tryLock(anyLong(), anyLong(), any());
+        assertEquals(RedisCircuitBreaker.State.OPEN,
+            redisCircuitBreaker.getState());
+        assertEquals(5.0,
+            meterRegistry.counter("account.lock.fallback").count());
+    }
+
+    @Test
+    public void openCircuit_probeRedisAfterOpenDuration() throws Exception {
+        //given
+        lockProperties.getCircuitBreaker().setFailureThreshold(1);
+        lockProperties.getCircuitBreaker().setOpenDuration(Duration.ZERO);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willThrow(new RedisConnectionException("connection refused"))
+            .willReturn(true);
+
+        //when
+        lockService.lock("123");
+        lockService.unlock("123");
+        lockService.lock("123");
+        lockService.unlock("123");
+
+        //then
+        assertEquals(RedisCircuitBreaker.State.CLOSED,
+            redisCircuitBreaker.getState());
+        verify(rLock, times(2)).tryLock(anyLong(), anyLong(), any());
+        verify(rLock, times(1)).unlock();
+    }
+
+    @Test
+    public void twoTier_redisFailure_keepLocalStripe() throws Exception {
+        //given
+        lockProperties.setMode(LockMode.TWO_TIER);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(lockFuture);
+        given(lockFuture.get()).willThrow(
+            new RedisConnectionException("connection refused"));
+
+        //when
+        lockService.lock("123");
+
+        //then
+        assertEquals(1.0,
+            meterRegistry.counter("account.lock.fallback").count());
+        lockService.unlock("123");
+        verify(rLock, never()).unlockAsync(anyLong());
+    }
+}
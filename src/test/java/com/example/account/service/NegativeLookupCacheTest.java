@@ -0,0 +1,154 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.account.config.CacheConfig;
+import com.example.account.config.NegativeCacheProperties;
+import com.example.account.domain.AccountUser;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+/**
+ * 없는 사용자/계좌번호가 짧은 만료 시간으로 기억되고, 사용자 저장이나 계좌 무효화 알림으로
+ * 빠지는지 실제 캐시 설정으로 확인한다.
+ */
+@SpringBootTest
+class NegativeLookupCacheTest {
+
+    private static final long USER_ID = 1L;
+    private static final long MISSING_USER_ID = 987_654_321L;
+    private static final String MISSING_ACCOUNT_NUMBER = "9999999999";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private AccountMetadataCache accountMetadataCache;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private NegativeCacheProperties negativeCacheProperties;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.getCache(CacheConfig.MISSING_ACCOUNT_USER).clear();
+        cacheManager.getCache(CacheConfig.MISSING_ACCOUNT).clear();
+    }
+
+    @Test
+    public void negativeCachesUseShortTtl() {
+        //given
+        //when
+        Cache<?, ?> nativeCache = (Cache<?, ?>) cacheManager
+            .getCache(CacheConfig.MISSING_ACCOUNT).getNativeCache();
+
+        //then
+        assertEquals(negativeCacheProperties.getTtl(),
+            nativeCache.policy().expireAfterWrite().get().getExpiresAfter());
+    }
+
+    @Test
+    public void missingUser_rejectedFromCache() {
+        //given
+        double rejectedBefore = rejected("user");
+        assertThrows(AccountException.class,
+            () -> accountService.getAccountInfosByUserId(MISSING_USER_ID));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountService.getAccountInfosByUserId(MISSING_USER_ID));
+
+        //then
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        assertEquals(rejectedBefore + 1, rejected("user"));
+    }
+
+    @Test
+    public void savingUser_evictsMiss() {
+        //given
+        negativeLookupCache.userNotFound(USER_ID);
+        AccountUser user = accountUserRepository.findById(USER_ID).get();
+
+        //when
+        accountUserRepository.save(user);
+
+        //then
+        assertDoesNotThrow(
+            () -> accountService.getAccountInfosByUserId(USER_ID));
+    }
+
+    @Test
+    public void accountInvalidation_evictsMiss() {
+        //given
+        double rejectedBefore = rejected("account");
+        assertThrows(AccountException.class,
+            () -> transactionService.getTransactionHistory(
+                MISSING_ACCOUNT_NUMBER, null, 10, null, null));
+        assertThrows(AccountException.class,
+            () -> transactionService.getTransactionHistory(
+                MISSING_ACCOUNT_NUMBER, null, 10, null, null));
+        assertEquals(rejectedBefore + 1, rejected("account"));
+
+        //when
+        accountMetadataCache.onInvalidation(
+            "other-node:" + MISSING_ACCOUNT_NUMBER);
+
+        //then
+        assertThrows(AccountException.class,
+            () -> transactionService.getTransactionHistory(
+                MISSING_ACCOUNT_NUMBER, null, 10, null, null));
+        assertEquals(rejectedBefore + 1, rejected("account"));
+    }
+
+    @Test
+    public void failedTransactionRecording_notCountedAsRejection() {
+        //given
+        double rejectedBefore = rejected("account");
+
+        //when
+        // 컨트롤러처럼 거절된 요청마다 실패 거래를 기록한다.
+        for (int i = 0; i < 3; i++) {
+            assertThrows(AccountException.class,
+                () -> transactionService.useBalance(USER_ID,
+                    MISSING_ACCOUNT_NUMBER, 100L));
+            assertThrows(AccountException.class,
+                () -> transactionService.saveFailedUseTransaction(
+                    MISSING_ACCOUNT_NUMBER, 100L));
+        }
+
+        //then
+        // 첫 요청은 DB 에서 찾지 못한 것이므로 세지 않고, 뒤의 두 요청만 센다.
+        assertEquals(rejectedBefore + 2, rejected("account"));
+    }
+
+    private double rejected(String key) {
+        return meterRegistry.get("account.negative-cache.rejected")
+            .tag("key", key)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.account.config.BalanceProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+class OptimisticRetryExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        BalanceProperties balanceProperties = new BalanceProperties();
+        balanceProperties.getOptimistic().setMaxAttempts(3);
+        balanceProperties.getOptimistic().setBackoffBase(Duration.ofMillis(1));
+        balanceProperties.getOptimistic().setBackoffMax(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetryExecutor = new OptimisticRetryExecutor(
+            balanceProperties, meterRegistry);
+    }
+
+    @Test
+    public void successAfterRetry() throws Throwable {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        String result = optimisticRetryExecutor.execute("1000000000", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(
+                    "Account", 1L);
+            }
+            return "ok";
+        });
+
+        //then
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.counter(
+            "account.balance.optimistic.retry").count());
+    }
+
+    @Test
+    public void giveUpAfterMaxAttempts() throws Throwable {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> optimisticRetryExecutor.execute("1000000000", () -> {
+                attempts.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(
+                    "Account", 1L);
+            }));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            exception.getErrorCode());
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.counter(
+            "account.balance.optimistic.giveup").count());
+    }
+
+    @Test
+    public void doNotRetryAccountException() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> optimisticRetryExecutor.execute("1000000000", () -> {
+                attempts.incrementAndGet();
+                throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+            exception.getErrorCode());
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.example.account.config.PreLockValidationProperties;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+@ExtendWith(MockitoExtension.class)
+class PreLockValidatorTest {
+
+    private static final long USER_ID = 12L;
+    private static final String ACCOUNT_NUMBER = "1000000012";
+
+    @Spy
+    private PreLockValidationProperties properties =
+        new PreLockValidationProperties();
+
+    private final AccountUserRepository accountUserRepository =
+        mock(AccountUserRepository.class);
+
+    private final AccountMetadataCache accountMetadataCache =
+        mock(AccountMetadataCache.class);
+
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(
+        new ConcurrentMapCacheManager(), new SimpleMeterRegistry(),
+        accountUserRepository, accountMetadataCache);
+
+    @Mock
+    private LastKnownBalanceCache lastKnownBalanceCache;
+
+    @Mock
+    private TransactionIdFilter transactionIdFilter;
+
+    @Mock
+    private AccountBalanceReader accountBalanceReader;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PreLockValidator preLockValidator;
+
+    @Test
+    public void useBalance_pass() {
+        //given
+        givenUserAndAccount(USER_ID, AccountStatus.IN_USE);
+        given(lastKnownBalanceCache.get(ACCOUNT_NUMBER))
+            .willReturn(OptionalLong.of(1000L));
+
+        //when
+        preLockValidator.validate(
+            new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L));
+
+        //then
+        verify(transactionService, never())
+            .saveFailedUseTransaction(anyString(), anyLong());
+    }
+
+    @Test
+    public void useBalance_unknownBalance_pass() {
+        //given
+        givenUserAndAccount(USER_ID, AccountStatus.IN_USE);
+        given(lastKnownBalanceCache.get(ACCOUNT_NUMBER))
+            .willReturn(OptionalLong.empty());
+
+        //when
+        preLockValidator.validate(
+            new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1_000_000L));
+
+        //then
+        verify(transactionService, never())
+            .saveFailedUseTransaction(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("해당 유저 없음 - 락 없이 거절하고 실패 거래 저장")
+    public void useBalance_userNotFound() {
+        //given
+        given(accountUserRepository.findById(USER_ID))
+            .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> preLockValidator.validate(
+                new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L)));
+
+        //then
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        verify(transactionService, times(1))
+            .saveFailedUseTransaction(ACCOUNT_NUMBER, 1000L);
+    }
+
+    @Test
+    public void useBalance_accountNotFound() {
+        //given
+        given(accountUserRepository.findById(USER_ID))
+            .willReturn(Optional.of(user(USER_ID)));
+        given(accountMetadataCache.get(ACCOUNT_NUMBER))
+            .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> preLockValidator.validate(
+                new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L)));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    public void useBalance_userUnMatch() {
+        //given
+        givenUserAndAccount(13L, AccountStatus.IN_USE);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> preLockValidator.validate(
+                new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L)));
+
+        //then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH,
+            exception.getErrorCode());
+        assertEquals(1, meterRegistry.get(
+                "account.lock.prevalidation.rejected")
+            .tag("code", "USER_ACCOUNT_UN_MATCH")
+            .counter().count());
+    }
+
+    @Test
+    public void useBalance_alreadyUnregistered() {
+        //given
+        givenUserAndAccount(USER_ID, AccountStatus.UNREGISTERED);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> preLockValidator.validate(
+                new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L)));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,
+            exception.getErrorCode());
+    }
+
+    @Test
+    public void useBalance_exceedLastKnownBalance() {
+        //given
+        givenUserAndAccount(USER_ID, AccountStatus.IN_USE);
+        given(lastKnownBalanceCache.get(ACCOUNT_NUMBER))
+            .willReturn(OptionalLong.of(999L));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> preLockValidator.validate(
+                new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L)));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+            exception.getErrorCode());
+        verify(transactionService, times(1))
+            .saveFailedUseTransaction(ACCOUNT_NUMBER, 1000L);
+    }
+
+    @Test
+    public void useBalance_shardedAccount_balanceNotChecked() {
+        //given
+        givenUserAndAccount(USER_ID, AccountStatus.IN_USE);
+        given(accountBalanceReader.isSharded(ACCOUNT_NUMBER)).willReturn(true);
+
+        //when
+        preLockValidator.validate(
+            new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L));
+
+        //then
+        verify(lastKnownBalanceCache, never()).get(anyString());
+    }
+
+    @Test
+    public void cancelBalance_unknownTransactionId() {
+        //given
+        given(transactionIdFilter.mightExist("transactionId"))
+            .willReturn(false);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> preLockValidator.validate(new CancelBalance.Request(
+                "transactionId", ACCOUNT_NUMBER, 1000L)));
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,
+            exception.getErrorCode());
+        verify(transactionService, times(1))
+            .saveFailedCancelTransaction(ACCOUNT_NUMBER, 1000L);
+    }
+
+    @Test
+    public void disabled_pass() {
+        //given
+        properties.setEnabled(false);
+
+        //when
+        preLockValidator.validate(
+            new UseBalance.Request(USER_ID, ACCOUNT_NUMBER, 1000L));
+
+        //then
+        verify(accountUserRepository, never()).findById(anyLong());
+    }
+
+    private void givenUserAndAccount(long ownerId, AccountStatus status) {
+        given(accountUserRepository.findById(USER_ID))
+            .willReturn(Optional.of(user(USER_ID)));
+        given(accountMetadataCache.get(ACCOUNT_NUMBER))
+            .willReturn(Optional.of(AccountMetadata.builder()
+                .id(1L)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountUserId(ownerId)
+                .accountStatus(status)
+                .build()));
+    }
+
+    private static AccountUser user(long id) {
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.config.LocalRedisConfig;
+import com.example.account.config.LockProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 테스트 도중 내장 Redis 를 멈춰, 락이 제한된 시간 안에 서버 안의 락으로 넘어가고
+ * Redis 가 돌아오면 다시 Redis 락을 쓰는지 확인한다.
+ */
+@SpringBootTest
+class RedisOutageTest {
+
+    private static final String ACCOUNT_NUMBER = "outage-0000";
+
+    @Autowired
+    private LockService lockService;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    private LockProperties lockProperties;
+
+    @Autowired
+    private LocalRedisConfig localRedisConfig;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private int failureThreshold;
+    private Duration openDuration;
+    private boolean redisStopped;
+
+    @BeforeEach
+    public void setUp() {
+        LockProperties.CircuitBreaker circuitBreaker =
+            lockProperties.getCircuitBreaker();
+        failureThreshold = circuitBreaker.getFailureThreshold();
+        openDuration = circuitBreaker.getOpenDuration();
+        circuitBreaker.setFailureThreshold(1);
+        circuitBreaker.setOpenDuration(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try {
+            if (redisStopped) {
+                localRedisConfig.startRedis();
+                redisStopped = false;
+            }
+            awaitRecovery();
+            // 다른 테스트가 쓰는 구독이 다시 붙을 때까지 기다린다.
+            awaitSubscribers(AccountMetadataCache.INVALIDATION_TOPIC);
+            awaitSubscribers(LastKnownBalanceCache.RAISED_TOPIC);
+        } finally {
+            lockProperties.getCircuitBreaker()
+                .setFailureThreshold(failureThreshold);
+            lockProperties.getCircuitBreaker().setOpenDuration(openDuration);
+        }
+    }
+
+    @Test
+    public void redisDown_fallBackToLocalLockAndRecover() throws Exception {
+        //given
+        lockService.lock(ACCOUNT_NUMBER);
+        lockService.unlock(ACCOUNT_NUMBER);
+        assertEquals(RedisCircuitBreaker.State.CLOSED,
+            redisCircuitBreaker.getState());
+
+        //when
+        localRedisConfig.stopRedis();
+        redisStopped = true;
+        long startedAt = System.nanoTime();
+        lockService.lock(ACCOUNT_NUMBER);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(
+            System.nanoTime() - startedAt);
+
+        //then
+        assertTrue(elapsedMillis < 5000L, "lock took " + elapsedMillis + "ms");
+        assertEquals(RedisCircuitBreaker.State.OPEN,
+            redisCircuitBreaker.getState());
+        AccountException exception = CompletableFuture.supplyAsync(
+                () -> assertThrows(AccountException.class,
+                    () -> lockService.lock(ACCOUNT_NUMBER)))
+            .get(10, TimeUnit.SECONDS);
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            exception.getErrorCode());
+        lockService.unlock(ACCOUNT_NUMBER);
+
+        localRedisConfig.startRedis();
+        redisStopped = false;
+        awaitRecovery();
+        assertEquals(RedisCircuitBreaker.State.CLOSED,
+            redisCircuitBreaker.getState());
+    }
+
+    /**
+     * open-duration 마다 시험 요청을 보내 Redis 락이 다시 잡힐 때까지 기다린다.
+     */
+    private void awaitRecovery() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (redisCircuitBreaker.isOpen() && System.nanoTime() < deadline) {
+            Thread.sleep(200L);
+            lockService.lock(ACCOUNT_NUMBER);
+            lockService.unlock(ACCOUNT_NUMBER);
+        }
+    }
+
+    private void awaitSubscribers(String topic) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (redissonClient.getTopic(topic, StringCodec.INSTANCE)
+                    .countSubscribers() > 0) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // 아직 다시 연결되지 않았다.
+            }
+            Thread.sleep(200L);
+        }
+    }
+}
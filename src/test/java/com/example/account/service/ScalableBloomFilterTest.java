@@ -0,0 +1,112 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    public void growsWithoutFalseNegatives() {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        //when
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("known-" + i);
+        }
+
+        //then
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("known-" + i));
+        }
+        assertTrue(filter.stageCount() > 1);
+    }
+
+    @Test
+    public void falsePositiveRateWithinTargetAfterGrowth() {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("known-" + i);
+        }
+
+        //when
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        assertTrue((double) falsePositives / probes < 0.01,
+            "false positives : " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    public void duplicatesDoNotUseCapacity() {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            filter.add("same");
+        }
+
+        //then
+        assertEquals(1, filter.size());
+        assertEquals(1, filter.stageCount());
+        assertFalse(filter.mightContain("other"));
+    }
+
+    @Test
+    public void concurrentAdds_noFalseNegatives() throws Exception {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        int threads = 8;
+        int perThread = 5_000;
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    filter.add(thread + "-" + i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(filter.mightContain(t + "-" + i));
+            }
+        }
+    }
+
+    @Test
+    public void invalidFalsePositiveRate() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+            () -> new ScalableBloomFilter(1_000, 1.0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 엔드포인트별 서비스 메서드가 필요한 엔티티만 읽는지 Hibernate 통계로 확인한다.
+ * 연관관계가 즉시 로딩으로 돌아가면 사용자/계좌를 추가로 읽어 숫자가 늘어난다.
+ */
+@SpringBootTest
+class StatementCountTest {
+
+    private static final long USER_ID = 3L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private AccountDto account;
+
+    @BeforeEach
+    public void setUp() {
+        account = accountService.createAccount(USER_ID, 10_000L);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void queryTransactionResponse_projectionOnly() {
+        //given
+        TransactionDto used = transactionService.useBalance(USER_ID,
+            account.getAccountNumber(), 100L);
+        statistics.clear();
+
+        //when
+        transactionService.queryTransactionResponse(used.getTransactionId());
+
+        //then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void getAccountInfosByUserId_projectionOnly_userFromCache() {
+        //given
+        //when
+        accountService.getAccountInfosByUserId(USER_ID);
+
+        //then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void useBalance_loadsAccountOnly_userFromCache() {
+        //given
+        //when
+        transactionService.useBalance(USER_ID, account.getAccountNumber(),
+            100L);
+
+        //then
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    public void cancelBalance_doesNotLoadAccountUser() {
+        //given
+        TransactionDto used = transactionService.useBalance(USER_ID,
+            account.getAccountNumber(), 100L);
+        statistics.clear();
+
+        //when
+        transactionService.cancelBalance(used.getTransactionId(),
+            account.getAccountNumber(), 100L);
+
+        //then
+        assertEquals(2, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedTransactionIdGeneratorTest {
+
+    @Test
+    public void generate_32LowerHexWithNodeId() {
+        //given
+        TimeOrderedTransactionIdGenerator generator =
+            new TimeOrderedTransactionIdGenerator(0xabc);
+
+        //when
+        String transactionId = generator.generate();
+
+        //then
+        assertTrue(transactionId.matches("[0-9a-f]{32}"));
+        assertEquals("0abc", transactionId.substring(12, 16));
+    }
+
+    @Test
+    public void generate_monotonic() {
+        //given
+        TimeOrderedTransactionIdGenerator generator =
+            new TimeOrderedTransactionIdGenerator(1);
+
+        //when
+        //then
+        String previous = generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            String current = generator.generate();
+            assertTrue(current.compareTo(previous) > 0,
+                previous + " >= " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void generateConcurrently_noDuplicates() throws Exception {
+        //given
+        TimeOrderedTransactionIdGenerator generator =
+            new TimeOrderedTransactionIdGenerator(1);
+        int threads = 8;
+        int perThread = 10_000;
+
+        //when
+        Set<String> transactionIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    transactionIds.add(generator.generate());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(threads * perThread, transactionIds.size());
+    }
+
+    @Test
+    public void decodeTimestampAndNodeId() {
+        //given
+        TimeOrderedTransactionIdGenerator generator =
+            new TimeOrderedTransactionIdGenerator(0xabc);
+        long before = System.currentTimeMillis();
+
+        //when
+        String transactionId = generator.generate();
+
+        //then
+        assertTrue(TimeOrderedTransactionIdGenerator.isTimeOrdered(
+            transactionId));
+        assertTrue(TimeOrderedTransactionIdGenerator.timestampOf(
+            transactionId) >= before);
+        assertTrue(TimeOrderedTransactionIdGenerator.timestampOf(
+            transactionId) <= System.currentTimeMillis());
+        assertEquals(0xabc,
+            TimeOrderedTransactionIdGenerator.nodeIdOf(transactionId));
+        assertFalse(TimeOrderedTransactionIdGenerator.isTimeOrdered(
+            "0f0e9a6c-1d2b-4c3d-8e4f-5a6b7c8d9e0f"));
+        assertFalse(TimeOrderedTransactionIdGenerator.isTimeOrdered(
+            transactionId.toUpperCase()));
+    }
+
+    @Test
+    public void invalidNodeId() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+            () -> new TimeOrderedTransactionIdGenerator(0x10000));
+    }
+}
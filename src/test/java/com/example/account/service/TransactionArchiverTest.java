@@ -0,0 +1,252 @@
+package com.example.account.service;
+
+import static com.example.account.type.ErrorCode.TOO_OLD_ORDER_TO_CANCEL;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.example.account.config.ArchiveProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ExportFormat;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 취소 기간이 지난 거래만 보관 테이블로 옮겨지고, 옮긴 뒤에도 조회되는지 실제 DB 로 확인한다.
+ */
+@SpringBootTest
+class TransactionArchiverTest {
+
+    private static final long USER_ID = 2L;
+    private static final int OLD_TRANSACTIONS = 5;
+
+    @Autowired
+    private TransactionArchiver transactionArchiver;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private ArchiveProperties archiveProperties;
+
+    @Autowired
+    private TransactionIdFilter transactionIdFilter;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private int chunkSize;
+
+    @AfterEach
+    public void tearDown() {
+        archiveProperties.setChunkSize(chunkSize);
+    }
+
+    @Test
+    public void archiveExpiredTransactionsInChunks() {
+        //given
+        chunkSize = archiveProperties.getChunkSize();
+        archiveProperties.setChunkSize(2);
+        AccountDto accountDto = accountService.createAccount(USER_ID,
+            10_000L);
+        Account account = accountRepository.findByAccountNumber(
+            accountDto.getAccountNumber()).get();
+        LocalDateTime now = LocalDateTime.now();
+        List<String> oldIds = new ArrayList<>();
+        for (int i = 0; i < OLD_TRANSACTIONS; i++) {
+            oldIds.add(saveTransaction(account,
+                now.minusYears(1).minusDays(i + 1)));
+        }
+        String recentId = saveTransaction(account, now.minusDays(1));
+        // 서비스를 거치지 않고 넣은 거래이므로 기동 때처럼 테이블을 다시 읽어 거래 ID 필터에 넣는다.
+        transactionIdFilter.rebuild();
+
+        //when
+        long archived = transactionArchiver.archiveBefore(
+            now.minus(TransactionService.CANCEL_WINDOW));
+
+        //then
+        assertEquals(OLD_TRANSACTIONS, archived);
+        for (String oldId : oldIds) {
+            assertFalse(transactionRepository.findByTransactionId(oldId)
+                .isPresent());
+            assertTrue(transactionArchiveRepository.existsByTransactionId(
+                oldId));
+        }
+        assertTrue(transactionRepository.findByTransactionId(recentId)
+            .isPresent());
+
+        QueryTransactionResponse response = transactionService
+            .queryTransactionResponse(oldIds.get(0));
+        assertEquals(accountDto.getAccountNumber(),
+            response.getAccountNumber());
+        assertEquals(100L, response.getAmount());
+
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.cancelBalance(oldIds.get(0),
+                accountDto.getAccountNumber(), 100L));
+        assertEquals(TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
+    }
+
+    @Test
+    public void archivedTransactions_stillInHistoryAndExport()
+        throws Exception {
+        //given
+        chunkSize = archiveProperties.getChunkSize();
+        AccountDto accountDto = accountService.createAccount(USER_ID,
+            10_000L);
+        Account account = accountRepository.findByAccountNumber(
+            accountDto.getAccountNumber()).get();
+        LocalDateTime now = LocalDateTime.now();
+        List<String> newestFirst = new ArrayList<>();
+        newestFirst.add(saveTransaction(account, now.minusDays(1)));
+        newestFirst.add(saveTransaction(account, now.minusDays(2)));
+        for (int i = 0; i < 3; i++) {
+            newestFirst.add(saveTransaction(account,
+                now.minusYears(1).minusDays(i + 1)));
+        }
+        transactionArchiver.archiveBefore(
+            now.minus(TransactionService.CANCEL_WINDOW));
+        assertTrue(transactionArchiveRepository.existsByTransactionId(
+            newestFirst.get(2)));
+
+        //when
+        // 두 개씩 읽으면 두 번째 페이지가 두 테이블에 걸친다.
+        List<String> history = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryResponse page = transactionService
+                .getTransactionHistory(accountDto.getAccountNumber(), cursor,
+                    2, null, null);
+            for (TransactionHistoryItem item : page.getTransactions()) {
+                history.add(item.getTransactionId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.export(now.minusYears(2), now,
+            ExportFormat.CSV, out);
+        String exported = out.toString(StandardCharsets.UTF_8);
+
+        //then
+        assertEquals(newestFirst, history);
+        for (int i = 1; i < newestFirst.size(); i++) {
+            // 내보내기는 오래된 거래부터 쓴다.
+            assertTrue(exported.indexOf(newestFirst.get(i))
+                < exported.indexOf(newestFirst.get(i - 1)));
+        }
+        assertTrue(exported.contains(newestFirst.get(4)));
+    }
+
+    @Test
+    public void lockedByAnotherServer_skipRun() throws Exception {
+        //given
+        chunkSize = archiveProperties.getChunkSize();
+        AccountDto accountDto = accountService.createAccount(USER_ID,
+            10_000L);
+        Account account = accountRepository.findByAccountNumber(
+            accountDto.getAccountNumber()).get();
+        LocalDateTime now = LocalDateTime.now();
+        String oldId = saveTransaction(account, now.minusYears(2));
+        RLock lock = redissonClient.getLock("ARCHIVE:transaction");
+        // 다른 스레드가 잡아 두어 이 서버의 다른 실행처럼 보이게 한다.
+        CompletableFuture.runAsync(lock::lock).get(5, TimeUnit.SECONDS);
+
+        try {
+            //when
+            long archived = transactionArchiver.archiveBefore(
+                now.minus(TransactionService.CANCEL_WINDOW));
+
+            //then
+            assertEquals(0, archived);
+            assertTrue(transactionRepository.findByTransactionId(oldId)
+                .isPresent());
+        } finally {
+            lock.forceUnlock();
+            // 다른 테스트의 보관 건수에 섞이지 않도록 지운다.
+            transactionRepository.findByTransactionId(oldId)
+                .ifPresent(transactionRepository::delete);
+        }
+    }
+
+    @Test
+    public void redisUnavailable_skipRunWithoutLocalFallback() {
+        //given
+        chunkSize = archiveProperties.getChunkSize();
+        RedissonClient unavailable = mock(RedissonClient.class);
+        RLock lock = mock(RLock.class);
+        given(unavailable.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willThrow(
+            new RedisConnectionException("Redis is down"));
+        TransactionArchiveService archiveService =
+            mock(TransactionArchiveService.class);
+        TransactionArchiver archiver = new TransactionArchiver(
+            archiveService, unavailable, archiveProperties);
+
+        //when
+        long archived = archiver.archiveBefore(LocalDateTime.now());
+
+        //then
+        assertEquals(0, archived);
+        verifyNoInteractions(archiveService);
+    }
+
+    private String saveTransaction(Account account,
+        LocalDateTime transactionAt) {
+        String transactionId = UUID.randomUUID().toString().replace("-", "");
+        transactionRepository.save(Transaction.builder()
+            .transactionType(USE)
+            .transactionResultType(S)
+            .account(account)
+            .amount(100L)
+            .balanceSnapshot(account.getBalance())
+            .transactionId(transactionId)
+            .transactionAt(transactionAt)
+            .build());
+        return transactionId;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.dto.AccountDto;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 배치 처리 경로에서 성공/실패 거래 insert 가 JDBC 배치로 묶이는지 prepared statement 수로 확인한다.
+ */
+@SpringBootTest
+class TransactionBatchInsertTest {
+
+    private static final int USES = 20;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void useBalanceBatch_insertsTransactionsInJdbcBatch() {
+        //given
+        AccountDto accountDto = accountService.createAccount(3L,
+            USES / 2 * 100L);
+        List<BatchedUse> uses = new ArrayList<>();
+        for (int i = 0; i < USES; i++) {
+            // 뒤쪽 절반은 잔액 부족으로 실패 거래가 남는다.
+            uses.add(new BatchedUse(3L, 100L));
+        }
+        statistics.clear();
+
+        //when
+        transactionService.useBalanceBatch(accountDto.getAccountNumber(),
+            uses);
+
+        //then
+        assertEquals(USES, statistics.getEntityInsertCount());
+        // 계좌 조회, 사용자 조회, 시퀀스, 거래 insert 배치, 계좌 update 정도만 준비된다.
+        assertTrue(statistics.getPrepareStatementCount() < USES / 2,
+            "prepared statements : " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.account.service;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import com.example.account.columnar.ColumnarFormat;
+import com.example.account.dto.ExportResult;
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime FROM =
+        LocalDateTime.of(2022, 9, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportService(
+            transactionRepository, transactionArchiveRepository, objectMapper);
+    }
+
+    @Test
+    public void exportNdjson() throws Exception {
+        //given
+        given(transactionRepository.streamExportRows(any(), any()))
+            .willReturn(Stream.of(row("t1", USE, S), row("t2", CANCEL, F)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        ExportResult result = transactionExportService.export(FROM, TO,
+            ExportFormat.NDJSON, out);
+
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, result.getRows());
+        assertEquals(2, lines.length);
+        assertEquals("{\"transactionId\":\"t1\",\"accountNumber\":\"1000000000\","
+                + "\"transactionType\":\"USE\",\"transactionResultType\":\"S\","
+                + "\"amount\":100,\"balanceSnapshot\":900,"
+                + "\"transactionAt\":\"2022-09-01T12:00:00\"}",
+            lines[0]);
+    }
+
+    @Test
+    public void exportNdjson_archivedRowsFirst() throws Exception {
+        //given
+        given(transactionArchiveRepository.streamExportRows(any(), any()))
+            .willReturn(Stream.of(row("archived", USE, S)));
+        given(transactionRepository.streamExportRows(any(), any()))
+            .willReturn(Stream.of(row("t1", CANCEL, F)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        ExportResult result = transactionExportService.export(FROM, TO,
+            ExportFormat.NDJSON, out);
+
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, result.getRows());
+        assertTrue(lines[0].contains("\"transactionId\":\"archived\""));
+        assertTrue(lines[1].contains("\"transactionId\":\"t1\""));
+    }
+
+    @Test
+    public void exportCsv_escapesValues() throws Exception {
+        //given
+        given(transactionRepository.streamExportRows(any(), any()))
+            .willReturn(Stream.of(row("t,\"1\"", USE, S)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        transactionExportService.export(FROM, TO, ExportFormat.CSV, out);
+
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("transactionId,accountNumber,transactionType,"
+            + "transactionResultType,amount,balanceSnapshot,transactionAt",
+            lines[0]);
+        assertEquals("\"t,\"\"1\"\"\",1000000000,USE,S,100,900,"
+            + "2022-09-01T12:00", lines[1]);
+    }
+
+    @Test
+    public void exportColumnar() throws Exception {
+        //given
+        given(transactionRepository.streamExportRows(any(), any()))
+            .willReturn(Stream.of(row("t1", USE, S), row("t2", CANCEL, F)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        ExportResult result = transactionExportService.export(FROM, TO,
+            ExportFormat.COLUMNAR, out);
+
+        //then
+        byte[] bytes = out.toByteArray();
+        assertEquals(2, result.getRows());
+        assertEquals("ACOL", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(2, ByteBuffer.wrap(bytes,
+            ColumnarFormat.FILE_HEADER_SIZE, Integer.BYTES).getInt());
+    }
+
+    @Test
+    public void exportFailed_invalidRange() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionExportService.export(TO, FROM,
+                ExportFormat.CSV, new ByteArrayOutputStream()));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    private static TransactionExportRow row(String transactionId,
+        TransactionType transactionType, TransactionResultType resultType) {
+        return TransactionExportRow.builder()
+            .id(1L)
+            .accountId(1L)
+            .transactionId(transactionId)
+            .accountNumber("1000000000")
+            .transactionType(transactionType)
+            .transactionResultType(resultType)
+            .amount(100L)
+            .balanceSnapshot(900L)
+            .transactionAt(FROM.plusHours(12))
+            .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
+import com.example.account.type.TransactionType;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 커서로 끝까지 넘기면 모든 거래를 중복/누락 없이 최신순으로 받는지 실제 DB 로 확인한다.
+ */
+@SpringBootTest
+class TransactionHistoryTest {
+
+    private static final long USER_ID = 1L;
+    private static final int TRANSACTIONS = 25;
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    public void pageThroughHistoryWithCursor() {
+        //given
+        AccountDto account = accountService.createAccount(USER_ID, 10_000L);
+        List<String> usedIds = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            usedIds.add(transactionService.useBalance(USER_ID,
+                account.getAccountNumber(), 10L).getTransactionId());
+        }
+
+        //when
+        List<TransactionHistoryItem> items = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionHistoryResponse page = transactionService
+                .getTransactionHistory(account.getAccountNumber(), cursor,
+                    PAGE_SIZE, TransactionType.USE, null);
+            items.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        //then
+        assertEquals(3, pages);
+        assertEquals(TRANSACTIONS, items.size());
+        for (int i = 1; i < items.size(); i++) {
+            TransactionHistoryItem newer = items.get(i - 1);
+            TransactionHistoryItem older = items.get(i);
+            assertTrue(!newer.getTransactionAt()
+                .isBefore(older.getTransactionAt()));
+            assertTrue(newer.getId() > older.getId()
+                || newer.getTransactionAt().isAfter(older.getTransactionAt()));
+        }
+        assertEquals(usedIds.get(TRANSACTIONS - 1),
+            items.get(0).getTransactionId());
+        assertNull(cursor);
+    }
+}
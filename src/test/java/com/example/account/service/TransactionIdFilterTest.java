@@ -0,0 +1,181 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.example.account.config.TransactionIdFilterProperties;
+import com.example.account.config.TransactionIdProperties;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionIdType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIdFilterTest {
+
+    private static final int LOCAL_NODE_ID = 0;
+    private static final int REMOTE_NODE_ID = 1;
+    private static final long HOUR_AGO =
+        System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TransactionIdProperties transactionIdProperties =
+        new TransactionIdProperties();
+
+    private final SimpleMeterRegistry meterRegistry =
+        new SimpleMeterRegistry();
+
+    private TransactionIdFilter transactionIdFilter;
+
+    @BeforeEach
+    public void setUp() {
+        transactionIdProperties.setNodeId(LOCAL_NODE_ID);
+        transactionIdFilter = new TransactionIdFilter(transactionRepository,
+            transactionArchiveRepository, transactionManager,
+            new TransactionIdFilterProperties(), transactionIdProperties,
+            meterRegistry);
+    }
+
+    @Test
+    public void beforeRebuild_mightExist() {
+        //given
+        //when
+        //then
+        assertTrue(transactionIdFilter.mightExist(
+            transactionId(HOUR_AGO, LOCAL_NODE_ID, 1)));
+    }
+
+    @Test
+    public void rebuild_knownIdsFromBothTables() {
+        //given
+        String hot = transactionId(HOUR_AGO, REMOTE_NODE_ID, 1);
+        String archived = transactionId(HOUR_AGO, REMOTE_NODE_ID, 2);
+        givenStoredIds(hot, archived);
+
+        //when
+        transactionIdFilter.rebuild();
+
+        //then
+        assertTrue(transactionIdFilter.mightExist(hot));
+        assertTrue(transactionIdFilter.mightExist(archived));
+        assertFalse(transactionIdFilter.mightExist(
+            transactionId(HOUR_AGO, REMOTE_NODE_ID, 3)));
+        assertFalse(transactionIdFilter.mightExist("not-a-transaction-id"));
+        assertEquals(2, meterRegistry.get(
+                "account.transaction-id.filter.rejected")
+            .counter().count());
+    }
+
+    @Test
+    public void remoteIdCreatedAfterRebuild_mightExist() {
+        //given
+        givenStoredIds(transactionId(HOUR_AGO, REMOTE_NODE_ID, 1),
+            transactionId(HOUR_AGO, REMOTE_NODE_ID, 2));
+        transactionIdFilter.rebuild();
+
+        //when
+        String recent = transactionId(System.currentTimeMillis(),
+            REMOTE_NODE_ID, 3);
+
+        //then
+        assertTrue(transactionIdFilter.mightExist(recent));
+    }
+
+    @Test
+    public void localIdCreatedAfterRebuild_answeredByFilter() throws Exception {
+        //given
+        givenStoredIds(transactionId(HOUR_AGO, REMOTE_NODE_ID, 1),
+            transactionId(HOUR_AGO, REMOTE_NODE_ID, 2));
+        transactionIdFilter.rebuild();
+        Thread.sleep(2);
+        long now = System.currentTimeMillis();
+        String added = transactionId(now, LOCAL_NODE_ID, 1);
+        String unknown = transactionId(now, LOCAL_NODE_ID, 2);
+
+        //when
+        transactionIdFilter.add(added);
+
+        //then
+        assertTrue(transactionIdFilter.mightExist(added));
+        assertFalse(transactionIdFilter.mightExist(unknown));
+    }
+
+    @Test
+    public void randomHexId_rejectedWithoutDatabase() {
+        //given
+        givenStoredIds(transactionId(HOUR_AGO, REMOTE_NODE_ID, 1),
+            transactionId(HOUR_AGO, REMOTE_NODE_ID, 2));
+        transactionIdFilter.rebuild();
+
+        //when
+        //then
+        // 대부분 먼 미래의 시각으로 읽히며, 그런 ID 는 재구성 이후에 만들어졌을 리 없다.
+        for (int i = 0; i < 100; i++) {
+            String randomId = UUID.randomUUID().toString().replace("-", "");
+            assertFalse(transactionIdFilter.mightExist(randomId), randomId);
+        }
+    }
+
+    @Test
+    public void futureIdBeyondClockSkew_rejected() {
+        //given
+        givenStoredIds(transactionId(HOUR_AGO, REMOTE_NODE_ID, 1),
+            transactionId(HOUR_AGO, REMOTE_NODE_ID, 2));
+        transactionIdFilter.rebuild();
+
+        //when
+        String future = transactionId(System.currentTimeMillis()
+            + Duration.ofMinutes(2).toMillis(), REMOTE_NODE_ID, 3);
+
+        //then
+        assertFalse(transactionIdFilter.mightExist(future));
+    }
+
+    @Test
+    public void uuidType_filterNotUsed() {
+        //given
+        transactionIdProperties.setType(TransactionIdType.UUID);
+
+        //when
+        transactionIdFilter.onApplicationReady();
+
+        //then
+        assertTrue(transactionIdFilter.mightExist("not-a-transaction-id"));
+        verify(transactionRepository, never()).streamTransactionIds();
+    }
+
+    private void givenStoredIds(String hot, String archived) {
+        given(transactionRepository.count()).willReturn(1L);
+        given(transactionArchiveRepository.count()).willReturn(1L);
+        given(transactionRepository.streamTransactionIds())
+            .willReturn(Stream.of(hot));
+        given(transactionArchiveRepository.streamTransactionIds())
+            .willReturn(Stream.of(archived));
+    }
+
+    private static String transactionId(long millis, int nodeId,
+        long sequence) {
+        return String.format("%012x%04x%016x", millis, nodeId, sequence);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 거래 insert 를 JDBC 배치 없이 (batch size 1) 보낼 때와 배치로 보낼 때의
+ * prepared statement 수와 처리량을 비교한다. ./gradlew benchmark 로 실행한다.
+ * id 를 받으려고 시퀀스를 읽는 문장은 insert 와 따로 센다. pooled-lo 는 increment_size 개마다
+ * 한 번 읽고, pooled 가 아닌 생성기는 행마다 한 번씩 읽는다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.account.service.TransactionInsertBenchmarkTest"
+        + "$SequenceFetchCounter")
+class TransactionInsertBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void unbatchedVersusBatchedInsert() {
+        AccountDto accountDto = accountService.createAccount(1L, 0L);
+        Account account = accountRepository.findByAccountNumber(
+            accountDto.getAccountNumber()).get();
+        Statistics statistics = entityManagerFactory.unwrap(
+            SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            // 첫 실행은 JIT 워밍업으로 버린다.
+            insert(account, statistics, 50);
+            Result unbatched = insert(account, statistics, 1);
+            Result batched = insert(account, statistics, 50);
+
+            System.out.printf(
+                "batch size  1 : %d insert statements, %d sequence fetches, "
+                    + "%.1f rows/s%n",
+                unbatched.insertStatements(), unbatched.sequenceFetches,
+                unbatched.rowsPerSecond());
+            System.out.printf(
+                "batch size 50 : %d insert statements, %d sequence fetches, "
+                    + "%.1f rows/s%n",
+                batched.insertStatements(), batched.sequenceFetches,
+                batched.rowsPerSecond());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private Result insert(Account account, Statistics statistics,
+        int batchSize) {
+        statistics.clear();
+        SequenceFetchCounter.FETCHES.set(0);
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<Transaction> transactions = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                transactions.add(Transaction.builder()
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(TransactionResultType.F)
+                    .account(account)
+                    .amount(100L)
+                    .balanceSnapshot(0L)
+                    .transactionId(transactionIdGenerator.generate())
+                    .transactionAt(LocalDateTime.now())
+                    .build());
+            }
+            transactionRepository.saveAll(transactions);
+        });
+        return new Result(statistics.getPrepareStatementCount(),
+            SequenceFetchCounter.FETCHES.get(),
+            System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Hibernate 가 준비하는 문장 중 시퀀스 값을 읽는 문장을 센다.
+     */
+    public static class SequenceFetchCounter implements StatementInspector {
+
+        private static final AtomicLong FETCHES = new AtomicLong();
+
+        @Override
+        public String inspect(String sql) {
+            String lower = sql.toLowerCase(Locale.ROOT);
+            if (lower.contains("next value for") || lower.contains("nextval")) {
+                FETCHES.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    private static class Result {
+
+        private final long statements;
+        private final long sequenceFetches;
+        private final long elapsedNanos;
+
+        private Result(long statements, long sequenceFetches,
+            long elapsedNanos) {
+            this.statements = statements;
+            this.sequenceFetches = sequenceFetches;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private long insertStatements() {
+            return statements - sequenceFetches;
+        }
+
+        private double rowsPerSecond() {
+            return ROWS / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
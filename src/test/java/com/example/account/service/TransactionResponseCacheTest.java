@@ -0,0 +1,92 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 거래를 저장한 서버는 커밋 직후 응답이 캐시에 있고, 없는 거래는 캐시되지 않는지 확인한다.
+ */
+@SpringBootTest
+class TransactionResponseCacheTest {
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private TransactionResponseCache transactionResponseCache;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void filledOnWrite_hitSkipsLoader() throws Exception {
+        //given
+        AccountDto account = accountService.createAccount(USER_ID, 10_000L);
+        TransactionDto used = transactionService.useBalance(USER_ID,
+            account.getAccountNumber(), 300L);
+
+        //when
+        byte[] json = transactionResponseCache.get(used.getTransactionId(),
+            transactionId -> fail("should be served from cache"));
+
+        //then
+        QueryTransactionResponse response = objectMapper.readValue(json,
+            QueryTransactionResponse.class);
+        assertEquals(used.getTransactionId(), response.getTransactionId());
+        assertEquals(account.getAccountNumber(), response.getAccountNumber());
+        assertEquals(TransactionType.USE, response.getTransactionType());
+        assertEquals(300L, response.getAmount());
+        assertEquals(objectMapper.writeValueAsString(
+                transactionService.queryTransactionResponse(
+                    used.getTransactionId())),
+            new String(json));
+        assertTrue(meterRegistry.get("cache.weight")
+            .tag("cache", TransactionResponseCache.CACHE_NAME)
+            .gauge().value() >= json.length);
+    }
+
+    @Test
+    public void notFound_notCached() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            AccountException exception = assertThrows(AccountException.class,
+                () -> transactionResponseCache.get("unknown-transaction-id",
+                    transactionId -> {
+                        loads.incrementAndGet();
+                        return transactionService.queryTransactionResponse(
+                            transactionId);
+                    }));
+            assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,
+                exception.getErrorCode());
+        }
+
+        //then
+        assertEquals(2, loads.get());
+    }
+}
@@ -13,29 +13,48 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.example.account.config.BalanceProperties;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionCursor;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionArchiveRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.ErrorCode;
 import java.time.LocalDateTime;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceTest {
@@ -49,11 +68,51 @@ class TransactionServiceTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private AccountUserRepository accountUserRepository;
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Spy
+    private BalanceProperties balanceProperties = new BalanceProperties();
+
+    @Spy
+    private AccountBalanceReader accountBalanceReader =
+        new AccountBalanceReader(balanceProperties, null);
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator =
+        new TimeOrderedTransactionIdGenerator(0);
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private TransactionResponseCache transactionResponseCache;
+
+    @Mock
+    private TransactionIdFilter transactionIdFilter;
+
+    @Mock
+    private LastKnownBalanceCache lastKnownBalanceCache;
+
+    private final AccountUserRepository accountUserRepository =
+        mock(AccountUserRepository.class);
+
+    private final AccountMetadataCache accountMetadataCache =
+        mock(AccountMetadataCache.class);
+
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(
+        new ConcurrentMapCacheManager(), new SimpleMeterRegistry(),
+        accountUserRepository, accountMetadataCache);
 
     @InjectMocks
     private TransactionService transactionService;
 
+    @BeforeEach
+    public void setUp() {
+        lenient().when(transactionIdFilter.mightExist(anyString()))
+            .thenReturn(true);
+    }
+
     @Test
     public void successUseBalance() throws Exception {
         //given
@@ -69,7 +128,9 @@ class TransactionServiceTest {
             .build();
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
             .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
             .willReturn(Transaction.builder()
@@ -123,7 +184,7 @@ class TransactionServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
             .willReturn(Optional.empty());
 
         //when
@@ -149,13 +210,13 @@ class TransactionServiceTest {
         harry.setId(13L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(pobi));
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(harry)
-                .balance(0L)
-                .accountNumber("1000000012")
-                .build()
-            ));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(
+                Account.builder()
+                    .accountUser(harry)
+                    .balance(0L)
+                    .accountNumber("1000000012")
+                    .build())));
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -164,6 +225,7 @@ class TransactionServiceTest {
 
         //then
         assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        verify(accountRepository, never()).findById(any());
     }
 
     @Test
@@ -176,14 +238,14 @@ class TransactionServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(user)
-                .balance(100L)
-                .accountNumber("1000000012")
-                .accountStatus(AccountStatus.UNREGISTERED)
-                .build()
-            ));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(
+                Account.builder()
+                    .accountUser(user)
+                    .balance(100L)
+                    .accountNumber("1000000012")
+                    .accountStatus(AccountStatus.UNREGISTERED)
+                    .build())));
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -211,7 +273,9 @@ class TransactionServiceTest {
             .build();
         given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
             .willReturn(Optional.of(account));
 
         //when
@@ -223,6 +287,200 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("조건부 UPDATE 모드 - 계좌 사용 성공")
+    public void successUseBalance_conditionalUpdate() throws Exception {
+        //given
+        balanceProperties.setMode(BalanceMode.CONDITIONAL_UPDATE);
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(12L);
+        Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(9800L)
+            .accountNumber("1000000012")
+            .build();
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.of(user));
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong()))
+            .willReturn(1);
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
+            Transaction.class);
+
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(1L,
+            "1000000012", USE_AMOUNT);
+
+        //then
+        verify(accountRepository, times(1))
+            .useBalanceIfSufficient("1000000012", USE_AMOUNT);
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(S, transactionDto.getTransactionResultType());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 모드 - 잔액 부족")
+    public void exceedAmount_UseBalance_conditionalUpdate() throws Exception {
+        //given
+        balanceProperties.setMode(BalanceMode.CONDITIONAL_UPDATE);
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(12L);
+        Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(100L)
+            .accountNumber("1000000012")
+            .build();
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.of(user));
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong()))
+            .willReturn(0);
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.useBalance(1L, "1000000012", USE_AMOUNT)
+        );
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 모드 - 캐시가 모르는 해지")
+    public void unregisteredAccount_UseBalance_conditionalUpdate()
+        throws Exception {
+        //given
+        balanceProperties.setMode(BalanceMode.CONDITIONAL_UPDATE);
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(12L);
+        Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .accountNumber("1000000012")
+            .build();
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.of(user));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        // 다른 서버가 해지했지만 이 서버의 메타데이터는 아직 IN_USE 이다.
+        account.setAccountStatus(AccountStatus.UNREGISTERED);
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong()))
+            .willReturn(0);
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.useBalance(1L, "1000000012", USE_AMOUNT)
+        );
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,
+            exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("배치 사용 - 요청별 스냅샷과 성공/실패")
+    public void useBalanceBatch() throws Exception {
+        //given
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(12L);
+        Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(1000L)
+            .accountNumber("1000000012")
+            .build();
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.of(user));
+        given(transactionRepository.save(any()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+        BatchedUse first = new BatchedUse(12L, 300L);
+        BatchedUse tooLarge = new BatchedUse(12L, 900L);
+        BatchedUse second = new BatchedUse(12L, 700L);
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
+            Transaction.class);
+
+        //when
+        transactionService.useBalanceBatch("1000000012",
+            Arrays.asList(first, tooLarge, second));
+
+        //then
+        verify(accountUserRepository, times(1)).findById(12L);
+        verify(transactionRepository, times(3)).save(captor.capture());
+        List<Transaction> saved = captor.getAllValues();
+        assertEquals(S, saved.get(0).getTransactionResultType());
+        assertEquals(700L, saved.get(0).getBalanceSnapshot());
+        assertEquals(F, saved.get(1).getTransactionResultType());
+        assertEquals(700L, saved.get(1).getBalanceSnapshot());
+        assertEquals(S, saved.get(2).getTransactionResultType());
+        assertEquals(0L, saved.get(2).getBalanceSnapshot());
+        assertEquals(700L, first.getResultOrThrow().getBalanceSnapshot());
+        AccountException exception = assertThrows(AccountException.class,
+            tooLarge::getResultOrThrow);
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals(0L, second.getResultOrThrow().getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("배치 사용 - 없는 사용자는 두 번째부터 DB 조회 없이 실패")
+    public void useBalanceBatch_missingUserRememberedMiss() throws Exception {
+        //given
+        AccountUser user = AccountUser.builder()
+            .name("Pobi")
+            .build();
+        user.setId(12L);
+        Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(1000L)
+            .accountNumber("1000000012")
+            .build();
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
+            .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(99L))
+            .willReturn(Optional.empty());
+        BatchedUse first = new BatchedUse(99L, 100L);
+        BatchedUse second = new BatchedUse(99L, 100L);
+
+        //when
+        transactionService.useBalanceBatch("1000000012",
+            Arrays.asList(first, second));
+
+        //then
+        verify(accountUserRepository, times(1)).findById(99L);
+        assertEquals(ErrorCode.USER_NOT_FOUND, assertThrows(
+            AccountException.class, first::getResultOrThrow).getErrorCode());
+        assertEquals(ErrorCode.USER_NOT_FOUND, assertThrows(
+            AccountException.class, second::getResultOrThrow).getErrorCode());
+    }
+
     @Test
     @DisplayName("실패 트랜잭션 저장 성공")
     public void saveFailedUseTransaction() throws Exception {
@@ -237,7 +495,9 @@ class TransactionServiceTest {
             .balance(10000L)
             .accountNumber("1000000012")
             .build();
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
             .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
             .willReturn(Transaction.builder()
@@ -288,7 +548,9 @@ class TransactionServiceTest {
 
         given(transactionRepository.findByTransactionId(anyString()))
             .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
+        given(accountRepository.findById(any()))
             .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
             .willReturn(Transaction.builder()
@@ -318,6 +580,7 @@ class TransactionServiceTest {
         assertEquals(S, transactionDto.getTransactionResultType());
         assertEquals(CANCEL, transactionDto.getTransactionType());
         assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        verify(lastKnownBalanceCache).beforeRaise("1000000000");
     }
 
     @Test
@@ -327,7 +590,7 @@ class TransactionServiceTest {
         given(transactionRepository.findByTransactionId(anyString()))
             .willReturn(Optional.of(Transaction.builder().build()));
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountMetadataCache.get(anyString()))
             .willReturn(Optional.empty());
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -356,6 +619,47 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("거래 ID 필터에 없음 - DB 조회 없이 잔액 사용 취소 실패")
+    public void cancelTransactionFailed_UnknownToTransactionIdFilter()
+        throws Exception {
+        //given
+        given(transactionIdFilter.mightExist("transactionId"))
+            .willReturn(false);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.cancelBalance("transactionId",
+                "1000000000", 1000L)
+        );
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        verify(transactionArchiveRepository, never())
+            .existsByTransactionId(anyString());
+    }
+
+    @Test
+    @DisplayName("보관 테이블로 옮겨진 거래 - 잔액 사용 취소 실패")
+    public void cancelTransactionFailed_ArchivedTransaction() throws Exception {
+        //given
+        given(transactionRepository.findByTransactionId(anyString()))
+            .willReturn(Optional.empty());
+        given(transactionArchiveRepository.existsByTransactionId(
+            "transactionId"))
+            .willReturn(true);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.cancelBalance("transactionId",
+                "1000000000", 1000L)
+        );
+
+        //then
+        assertEquals(TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
+    }
+
     @Test
     @DisplayName("거래와 계좌가 매칭실패 - 잔액 사용 취소 실패")
     public void cancelTransactionFailed_TransactionAccountUnMatch()
@@ -391,8 +695,8 @@ class TransactionServiceTest {
         given(transactionRepository.findByTransactionId(anyString()))
             .willReturn(Optional.of(transaction));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(accountNotUse));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(accountNotUse)));
         //when
         AccountException exception = assertThrows(AccountException.class,
             () -> transactionService.cancelBalance("transactionId",
@@ -431,8 +735,8 @@ class TransactionServiceTest {
         given(transactionRepository.findByTransactionId(anyString()))
             .willReturn(Optional.of(transaction));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(account));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
         //when
         AccountException exception = assertThrows(AccountException.class,
             () -> transactionService.cancelBalance("transactionId",
@@ -471,8 +775,8 @@ class TransactionServiceTest {
         given(transactionRepository.findByTransactionId(anyString()))
             .willReturn(Optional.of(transaction));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(account));
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.fromEntity(account)));
         //when
         AccountException exception = assertThrows(AccountException.class,
             () -> transactionService.cancelBalance("transactionId",
@@ -486,52 +790,177 @@ class TransactionServiceTest {
     @Test
     public void successQueryTransaction() throws Exception {
         //given
-        AccountUser user = AccountUser.builder()
-            .name("Pobi")
-            .build();
-        user.setId(12L);
-        Account account = Account.builder()
-            .accountUser(user)
-            .accountStatus(IN_USE)
-            .balance(10000L)
-            .accountNumber("1000000012")
-            .build();
-        account.setId(1L);
-        Transaction transaction = Transaction.builder()
-            .account(account)
-            .transactionType(USE)
-            .transactionResultType(S)
-            .transactionId("transactionId")
-            .transactionAt(LocalDateTime.now().minusYears(1).minusDays(1))
-            .amount(CANCEL_AMOUNT)
-            .balanceSnapshot(9000L)
-            .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(transaction));
+        given(transactionRepository.findResponseByTransactionId(anyString()))
+            .willReturn(Optional.of(QueryTransactionResponse.builder()
+                .accountNumber("1000000012")
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactionAt(LocalDateTime.now().minusYears(1).minusDays(1))
+                .amount(CANCEL_AMOUNT)
+                .build()));
 
         //when
-        transactionService.queryTransaction(("trxId"));
+        QueryTransactionResponse response = transactionService
+            .queryTransactionResponse("trxId");
 
         //then
-        assertEquals(USE, transaction.getTransactionType());
-        assertEquals(S, transaction.getTransactionResultType());
-        assertEquals(CANCEL_AMOUNT, transaction.getAmount());
-        assertEquals("transactionId", transaction.getTransactionId());
+        assertEquals("1000000012", response.getAccountNumber());
+        assertEquals(USE, response.getTransactionType());
+        assertEquals(S, response.getTransactionResultType());
+        assertEquals(CANCEL_AMOUNT, response.getAmount());
+        assertEquals("transactionId", response.getTransactionId());
+        verify(transactionArchiveRepository, never())
+            .findResponseByTransactionId(anyString());
+    }
+
+    @Test
+    public void successQueryTransaction_fromArchive() throws Exception {
+        //given
+        given(transactionRepository.findResponseByTransactionId(anyString()))
+            .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findResponseByTransactionId(
+                "transactionId"))
+            .willReturn(Optional.of(QueryTransactionResponse.builder()
+                .accountNumber("1000000012")
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactionAt(LocalDateTime.now().minusYears(2))
+                .amount(CANCEL_AMOUNT)
+                .build()));
+
+        //when
+        QueryTransactionResponse response = transactionService
+            .queryTransactionResponse("transactionId");
+
+        //then
+        assertEquals("1000000012", response.getAccountNumber());
+        assertEquals(USE, response.getTransactionType());
+        assertEquals(CANCEL_AMOUNT, response.getAmount());
     }
 
     @Test
     @DisplayName("해당 거래 없음 - 거래 조 실패")
     public void queryTransactionFailed_TransactionNotFound() throws Exception {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findResponseByTransactionId(anyString()))
             .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findResponseByTransactionId(
+                anyString()))
+            .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.queryTransactionResponse("transactionId")
+        );
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("거래 ID 필터에 없음 - DB 조회 없이 거래 조회 실패")
+    public void queryTransactionFailed_UnknownToTransactionIdFilter()
+        throws Exception {
+        //given
+        given(transactionIdFilter.mightExist("transactionId"))
+            .willReturn(false);
 
         //when
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.queryTransaction("transactionId")
+            () -> transactionService.queryTransactionResponse("transactionId")
         );
 
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        verify(transactionRepository, never())
+            .findResponseByTransactionId(anyString());
+        verify(transactionArchiveRepository, never())
+            .findResponseByTransactionId(anyString());
+    }
+
+    @Test
+    public void getTransactionHistory_firstPageWithNextCursor() {
+        //given
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.builder()
+                .id(1L)
+                .accountNumber("1000000012")
+                .build()));
+        LocalDateTime now = LocalDateTime.now();
+        given(transactionRepository.findHistory(eq(1L), isNull(), eq(S),
+            any()))
+            .willReturn(Arrays.asList(
+                TransactionHistoryItem.builder().id(3L).transactionAt(now)
+                    .build(),
+                TransactionHistoryItem.builder().id(2L).transactionAt(now)
+                    .build(),
+                TransactionHistoryItem.builder().id(1L).transactionAt(now)
+                    .build()));
+
+        //when
+        TransactionHistoryResponse response = transactionService
+            .getTransactionHistory("1000000012", null, 2, null, S);
+
+        //then
+        assertEquals(2, response.getTransactions().size());
+        TransactionCursor next = TransactionCursor.decode(
+            response.getNextCursor());
+        assertEquals(2L, next.getId());
+        assertEquals(now, next.getTransactionAt());
+    }
+
+    @Test
+    public void getTransactionHistory_lastPageFromCursor() {
+        //given
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.builder()
+                .id(1L)
+                .accountNumber("1000000012")
+                .build()));
+        LocalDateTime cursorAt = LocalDateTime.now();
+        given(transactionRepository.findHistoryAfter(eq(1L), eq(cursorAt),
+            eq(2L), isNull(), isNull(), any()))
+            .willReturn(Arrays.asList(
+                TransactionHistoryItem.builder().id(1L)
+                    .transactionAt(cursorAt).build()));
+
+        //when
+        TransactionHistoryResponse response = transactionService
+            .getTransactionHistory("1000000012",
+                new TransactionCursor(cursorAt, 2L).encode(), 2, null,
+                null);
+
+        //then
+        assertEquals(1, response.getTransactions().size());
+        assertEquals(null, response.getNextCursor());
+    }
+
+    @Test
+    public void getTransactionHistory_invalidCursor() {
+        //given
+        given(accountMetadataCache.get(anyString()))
+            .willReturn(Optional.of(AccountMetadata.builder().id(1L).build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.getTransactionHistory("1000000012",
+                "not-a-cursor", 20, null, null));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    public void getTransactionHistory_invalidSize() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.getTransactionHistory("1000000012",
+                null, 101, null, null));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
     }
-}
\ No newline at end of file
+}
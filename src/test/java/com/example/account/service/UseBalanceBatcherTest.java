@@ -0,0 +1,138 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+
+import com.example.account.aop.LockPolicy;
+import com.example.account.config.BalanceProperties;
+import com.example.account.config.LockProperties;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(MockitoExtension.class)
+class UseBalanceBatcherTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    private LockPolicyResolver lockPolicyResolver;
+
+    private UseBalanceBatcher useBalanceBatcher;
+
+    @BeforeEach
+    public void setUp() {
+        BalanceProperties balanceProperties = new BalanceProperties();
+        balanceProperties.getBatch().setWindow(Duration.ofMillis(20));
+        balanceProperties.getBatch().setMaxSize(16);
+        LockProperties.Policy use = new LockProperties.Policy();
+        use.setWaitTime(Duration.ofMillis(500));
+        use.setLeaseTime(Duration.ofSeconds(10));
+        LockProperties lockProperties = new LockProperties();
+        lockProperties.getPolicies().put(LockPolicyResolver.USE_POLICY, use);
+        lockPolicyResolver = new LockPolicyResolver(lockProperties,
+            new MockEnvironment());
+        useBalanceBatcher = new UseBalanceBatcher(transactionService,
+            lockService, lockPolicyResolver, balanceProperties,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void coalesceConcurrentUses() throws Exception {
+        //given
+        AtomicInteger batches = new AtomicInteger();
+        willAnswer(invocation -> {
+            batches.incrementAndGet();
+            List<BatchedUse> uses = invocation.getArgument(1);
+            for (BatchedUse use : uses) {
+                use.succeed(TransactionDto.builder()
+                    .accountNumber(invocation.getArgument(0))
+                    .amount(use.getAmount())
+                    .build());
+            }
+            return null;
+        }).given(transactionService).useBalanceBatch(anyString(), anyList());
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<TransactionDto>> futures = new ArrayList<>();
+
+        //when
+        for (long i = 1; i <= 64; i++) {
+            long amount = i;
+            futures.add(executor.submit(() -> useBalanceBatcher.useBalance(
+                1L, "1000000000", amount)));
+        }
+
+        //then
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i + 1L, futures.get(i).get().getAmount());
+        }
+        executor.shutdown();
+        assertTrue(batches.get() < 64);
+        verify(lockService, atMost(batches.get())).lock("1000000000",
+            lockPolicyResolver.resolve(LockPolicyResolver.USE_POLICY));
+    }
+
+    @Test
+    public void failAllWhenBatchFails() {
+        //given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+            .given(transactionService)
+            .useBalanceBatch(eq("1000000000"), anyList());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> useBalanceBatcher.useBalance(1L, "1000000000", 100L));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    public void lockWithUsePolicy() {
+        //given
+        ArgumentCaptor<LockPolicy> policyCaptor = ArgumentCaptor.forClass(
+            LockPolicy.class);
+        willAnswer(invocation -> {
+            List<BatchedUse> uses = invocation.getArgument(1);
+            uses.forEach(use -> use.succeed(TransactionDto.builder()
+                .amount(use.getAmount())
+                .build()));
+            return null;
+        }).given(transactionService).useBalanceBatch(anyString(), anyList());
+
+        //when
+        useBalanceBatcher.useBalance(1L, "1000000000", 100L);
+
+        //then
+        verify(lockService).lock(eq("1000000000"), policyCaptor.capture());
+        verify(lockService).unlock("1000000000", policyCaptor.getValue());
+        assertEquals(500L, policyCaptor.getValue().getWaitMillis());
+        assertEquals(10000L, policyCaptor.getValue().getLeaseMillis());
+    }
+}